@@ -1,7 +1,6 @@
 package com.gestion.parking.dao;
 
 import com.gestion.parking.model.Abonne;
-import com.gestion.parking.model.Vehicule;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
@@ -39,6 +38,7 @@ public class AbonneDAO {
     // Trouver par ID
     public Abonne findById(int id) throws SQLException {
         String sql = "SELECT a.* FROM Abonne a WHERE a.id = ?";
+        Abonne abonne = null;
         
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -47,16 +47,17 @@ public class AbonneDAO {
             
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return mapResultSetToAbonne(rs);
+                    abonne = mapResultSetToAbonne(rs);
                 }
             }
         }
-        return null;
+        return abonne == null ? null : resoudreVehicules(List.of(abonne)).get(0);
     }
     
     // Trouver par ID du véhicule
     public Abonne findByVehiculeId(int vehiculeId) throws SQLException {
         String sql = "SELECT a.* FROM Abonne a WHERE a.vehicule_id = ?";
+        Abonne abonne = null;
         
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -65,16 +66,17 @@ public class AbonneDAO {
             
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return mapResultSetToAbonne(rs);
+                    abonne = mapResultSetToAbonne(rs);
                 }
             }
         }
-        return null;
+        return abonne == null ? null : resoudreVehicules(List.of(abonne)).get(0);
     }
     
     // Trouver par immatriculation du véhicule
     public Abonne findByVehiculeImmatriculation(String immatriculation) throws SQLException {
         String sql = "SELECT a.* FROM Abonne a JOIN Vehicule v ON a.vehicule_id = v.id WHERE v.immatriculation = ?";
+        Abonne abonne = null;
         
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -83,11 +85,11 @@ public class AbonneDAO {
             
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return mapResultSetToAbonne(rs);
+                    abonne = mapResultSetToAbonne(rs);
                 }
             }
         }
-        return null;
+        return abonne == null ? null : resoudreVehicules(List.of(abonne)).get(0);
     }
     
     // Mettre à jour un abonné
@@ -131,7 +133,36 @@ public class AbonneDAO {
                 abonnes.add(mapResultSetToAbonne(rs));
             }
         }
-        return abonnes;
+        return resoudreVehicules(abonnes);
+    }
+    
+    // Page d'abonnés triés par (dateDebut, id) décroissants, pagination par clé:
+    // "dernier" est le dernier abonné de la page précédente (null pour la première page)
+    public List<Abonne> findPage(Abonne dernier, int taille) throws SQLException {
+        List<Abonne> abonnes = new ArrayList<>();
+        String sql = "SELECT a.* FROM Abonne a"
+                   + (dernier == null ? "" : " WHERE a.dateDebut < ? OR (a.dateDebut = ? AND a.id < ?)")
+                   + " ORDER BY a.dateDebut DESC, a.id DESC LIMIT ?";
+        
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            int index = 1;
+            if (dernier != null) {
+                Date dateDebut = Date.valueOf(dernier.getDateDebut());
+                stmt.setDate(index++, dateDebut);
+                stmt.setDate(index++, dateDebut);
+                stmt.setInt(index++, dernier.getId());
+            }
+            stmt.setInt(index, taille);
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    abonnes.add(mapResultSetToAbonne(rs));
+                }
+            }
+        }
+        return resoudreVehicules(abonnes);
     }
     
     // Lister les abonnés valides (dont l'abonnement est en cours)
@@ -147,7 +178,7 @@ public class AbonneDAO {
                 abonnes.add(mapResultSetToAbonne(rs));
             }
         }
-        return abonnes;
+        return resoudreVehicules(abonnes);
     }
     
     // Lister les abonnés expirés
@@ -163,7 +194,7 @@ public class AbonneDAO {
                 abonnes.add(mapResultSetToAbonne(rs));
             }
         }
-        return abonnes;
+        return resoudreVehicules(abonnes);
     }
     
     // Vérifier si un véhicule est abonné et valide
@@ -216,15 +247,25 @@ public class AbonneDAO {
         return 0;
     }
     
-    // Méthode utilitaire pour mapper ResultSet -> Abonne
+    // Résoudre les véhicules des abonnés en une seule requête (2 requêtes au plus par listage)
+    private List<Abonne> resoudreVehicules(List<Abonne> abonnes) throws SQLException {
+        VehiculeBatchLoader loader = new VehiculeBatchLoader(vehiculeDAO);
+        for (Abonne abonne : abonnes) {
+            loader.demander(abonne.getVehiculeId());
+        }
+        loader.charger();
+        
+        for (Abonne abonne : abonnes) {
+            abonne.setVehicule(loader.get(abonne.getVehiculeId()));
+        }
+        return abonnes;
+    }
+    
+    // Méthode utilitaire pour mapper ResultSet -> Abonne (le véhicule est résolu ensuite par lot)
     private Abonne mapResultSetToAbonne(ResultSet rs) throws SQLException {
         Abonne abonne = new Abonne();
         abonne.setId(rs.getInt("id"));
-        
-        // Récupérer le véhicule associé
-        int vehiculeId = rs.getInt("vehicule_id");
-        Vehicule vehicule = vehiculeDAO.findById(vehiculeId);
-        abonne.setVehicule(vehicule);
+        abonne.setVehiculeId(rs.getInt("vehicule_id"));
         
         Date dateDebut = rs.getDate("dateDebut");
         Date dateFin = rs.getDate("dateFin");
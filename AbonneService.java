@@ -13,11 +13,13 @@ public class AbonneService {
     private AbonneDAO abonneDAO;
     private VehiculeDAO vehiculeDAO;
     private VehiculeService vehiculeService;
+    private AbonnementIndex index;
     
     public AbonneService() {
         this.abonneDAO = new AbonneDAO();
         this.vehiculeDAO = new VehiculeDAO();
         this.vehiculeService = new VehiculeService();
+        this.index = AbonnementIndex.getInstance();
     }
     
     // Méthode pour calculer le revenu mensuel total des abonnements valides
@@ -74,6 +76,7 @@ public class AbonneService {
             abonne.setDateFin(dateFin);
             
             abonneDAO.create(abonne);
+            index.enregistrer(abonne);
             return abonne;
             
         } catch (SQLException e) {
@@ -131,7 +134,11 @@ public class AbonneService {
     // Mettre à jour un abonné
     public boolean mettreAJourAbonne(Abonne abonne) {
         try {
-            return abonneDAO.update(abonne);
+            boolean modifie = abonneDAO.update(abonne);
+            if (modifie) {
+                index.enregistrer(abonne);
+            }
+            return modifie;
         } catch (SQLException e) {
             System.err.println("Erreur lors de la mise à jour de l'abonné: " + e.getMessage());
             return false;
@@ -147,7 +154,11 @@ public class AbonneService {
             }
             
             abonne.setDateFin(nouvelleDateFin);
-            return abonneDAO.update(abonne);
+            boolean modifie = abonneDAO.update(abonne);
+            if (modifie) {
+                index.enregistrer(abonne);
+            }
+            return modifie;
             
         } catch (SQLException e) {
             System.err.println("Erreur lors du renouvellement de l'abonnement: " + e.getMessage());
@@ -158,7 +169,11 @@ public class AbonneService {
     // Supprimer un abonné
     public boolean supprimerAbonne(int id) {
         try {
-            return abonneDAO.delete(id);
+            boolean supprime = abonneDAO.delete(id);
+            if (supprime) {
+                index.retirer(id);
+            }
+            return supprime;
         } catch (SQLException e) {
             System.err.println("Erreur lors de la suppression de l'abonné: " + e.getMessage());
             return false;
@@ -175,6 +190,16 @@ public class AbonneService {
         }
     }
     
+    // Lister une page d'abonnés (dernier = dernier abonné de la page précédente, null au départ)
+    public List<Abonne> listerAbonnesPage(Abonne dernier, int taille) {
+        try {
+            return abonneDAO.findPage(dernier, taille);
+        } catch (SQLException e) {
+            System.err.println("Erreur lors du listage paginé des abonnés: " + e.getMessage());
+            return null;
+        }
+    }
+    
     // Lister les abonnés valides
     public List<Abonne> listerAbonnesValides() {
         try {
@@ -185,8 +210,12 @@ public class AbonneService {
         }
     }
     
-    // Vérifier si un abonné est valide
+    // Vérifier si un abonné est valide (index en mémoire, base en secours)
     public boolean estAbonneValide(String immatriculation) {
+        if (index.assurerInitialise()) {
+            return index.estValide(immatriculation, LocalDate.now());
+        }
+        
         try {
             Abonne abonne = abonneDAO.findByVehiculeImmatriculation(immatriculation.toUpperCase());
             if (abonne == null) {
@@ -203,6 +232,10 @@ public class AbonneService {
     
     // Vérifier si un véhicule est abonné (valide ou non)
     public boolean estVehiculeAbonne(String immatriculation) {
+        if (index.assurerInitialise()) {
+            return index.estAbonne(immatriculation);
+        }
+        
         try {
             Abonne abonne = abonneDAO.findByVehiculeImmatriculation(immatriculation.toUpperCase());
             return abonne != null;
@@ -0,0 +1,195 @@
+package com.gestion.parking.service;
+
+import com.gestion.parking.dao.AbonneDAO;
+import com.gestion.parking.model.Abonne;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Index en mémoire des périodes d'abonnement par immatriculation, partagé par toutes les instances
+// d'AbonneService. La validité d'un abonnement se vérifie ainsi sans requête (entrée, sortie, calcul du montant).
+// Tenu à jour par AbonneService à chaque création, modification ou suppression, et rechargé depuis
+// la table Abonne chaque nuit à minuit (changements faits par d'autres postes).
+public class AbonnementIndex {
+
+    private static final AbonnementIndex INSTANCE = new AbonnementIndex(new AbonneDAO());
+
+    // Période [dateDebut, dateFin] (bornes incluses) d'un abonné
+    private static final class Periode {
+        final int abonneId;
+        final String immatriculation;
+        final LocalDate dateDebut;
+        final LocalDate dateFin;
+
+        Periode(int abonneId, String immatriculation, LocalDate dateDebut, LocalDate dateFin) {
+            this.abonneId = abonneId;
+            this.immatriculation = immatriculation;
+            this.dateDebut = dateDebut;
+            this.dateFin = dateFin;
+        }
+
+        boolean couvre(LocalDate jour) {
+            return !jour.isBefore(dateDebut) && !jour.isAfter(dateFin);
+        }
+    }
+
+    private final AbonneDAO abonneDAO;
+    private final Map<Integer, Periode> parAbonne = new HashMap<>();
+    // Une liste par immatriculation: en pratique un seul abonnement par véhicule
+    private final Map<String, List<Periode>> parImmatriculation = new HashMap<>();
+    private volatile boolean initialise = false;
+    private long modifications = 0;
+    private ScheduledExecutorService rechargement;
+
+    AbonnementIndex(AbonneDAO abonneDAO) {
+        this.abonneDAO = abonneDAO;
+    }
+
+    public static AbonnementIndex getInstance() {
+        return INSTANCE;
+    }
+
+    // Charger l'index au premier usage; false si la base est indisponible
+    public boolean assurerInitialise() {
+        if (initialise) {
+            return true;
+        }
+        synchronized (this) {
+            if (!initialise) {
+                try {
+                    recharger();
+                    demarrerRechargementQuotidien();
+                } catch (SQLException e) {
+                    System.err.println("Chargement de l'index des abonnements impossible: " + e.getMessage());
+                }
+            }
+            return initialise;
+        }
+    }
+
+    // Reconstruire l'index à partir de la table Abonne
+    public void recharger() throws SQLException {
+        long avant;
+        synchronized (this) {
+            avant = modifications;
+        }
+        List<Abonne> abonnes = abonneDAO.findAll();
+
+        synchronized (this) {
+            // Une modification locale pendant la lecture rendrait l'instantané obsolète: on garde l'index actuel
+            if (initialise && modifications != avant) {
+                return;
+            }
+            parAbonne.clear();
+            parImmatriculation.clear();
+            for (Abonne abonne : abonnes) {
+                ajouter(abonne);
+            }
+            initialise = true;
+        }
+    }
+
+    // Rechargement chaque jour à minuit (recalculé à chaque fois, pour suivre les changements d'heure)
+    private synchronized void demarrerRechargementQuotidien() {
+        if (rechargement != null) {
+            return;
+        }
+        rechargement = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "abonnements-rechargement");
+            t.setDaemon(true);
+            return t;
+        });
+        planifierProchainMinuit();
+    }
+
+    private void planifierProchainMinuit() {
+        LocalDateTime maintenant = LocalDateTime.now();
+        long delaiMs = Duration.between(maintenant, maintenant.toLocalDate().plusDays(1).atStartOfDay()).toMillis();
+
+        rechargement.schedule(() -> {
+            try {
+                recharger();
+            } catch (SQLException e) {
+                System.err.println("Rechargement de l'index des abonnements échoué: " + e.getMessage());
+            } finally {
+                planifierProchainMinuit();
+            }
+        }, Math.max(delaiMs, 0L) + 1000L, TimeUnit.MILLISECONDS);
+    }
+
+    // Un abonnement de ce véhicule couvre-t-il le jour donné ?
+    public synchronized boolean estValide(String immatriculation, LocalDate jour) {
+        List<Periode> periodes = parImmatriculation.get(normaliser(immatriculation));
+        if (periodes == null) {
+            return false;
+        }
+        for (Periode periode : periodes) {
+            if (periode.couvre(jour)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Le véhicule a-t-il un abonnement (valide ou non) ?
+    public synchronized boolean estAbonne(String immatriculation) {
+        return parImmatriculation.containsKey(normaliser(immatriculation));
+    }
+
+    // Ajouter ou mettre à jour un abonné (création, modification, renouvellement)
+    public synchronized void enregistrer(Abonne abonne) {
+        modifications++;
+        if (abonne == null || abonne.getId() <= 0) {
+            return;
+        }
+        retirerPeriode(abonne.getId());
+        ajouter(abonne);
+    }
+
+    public synchronized void retirer(int abonneId) {
+        modifications++;
+        retirerPeriode(abonneId);
+    }
+
+    public synchronized int getTaille() {
+        return parAbonne.size();
+    }
+
+    private void ajouter(Abonne abonne) {
+        if (abonne.getVehicule() == null || abonne.getVehicule().getImmatriculation() == null
+                || abonne.getDateDebut() == null || abonne.getDateFin() == null) {
+            return;
+        }
+        Periode periode = new Periode(abonne.getId(), normaliser(abonne.getVehicule().getImmatriculation()),
+                                      abonne.getDateDebut(), abonne.getDateFin());
+        parAbonne.put(periode.abonneId, periode);
+        parImmatriculation.computeIfAbsent(periode.immatriculation, k -> new ArrayList<>(1)).add(periode);
+    }
+
+    private void retirerPeriode(int abonneId) {
+        Periode ancienne = parAbonne.remove(abonneId);
+        if (ancienne == null) {
+            return;
+        }
+        List<Periode> periodes = parImmatriculation.get(ancienne.immatriculation);
+        if (periodes != null) {
+            periodes.remove(ancienne);
+            if (periodes.isEmpty()) {
+                parImmatriculation.remove(ancienne.immatriculation);
+            }
+        }
+    }
+
+    private static String normaliser(String immatriculation) {
+        return immatriculation == null ? null : immatriculation.trim().toUpperCase(Locale.ROOT);
+    }
+}
@@ -14,6 +14,8 @@ public class AbonnesFrame extends JInternalFrame {
     private VehiculeService vehiculeService;
     private JTable table;
     private DefaultTableModel tableModel;
+    private AsyncLoader loader;
+    private static final int TAILLE_PAGE = 200;
     private static final DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
     
     public AbonnesFrame() {
@@ -22,6 +24,7 @@ public class AbonnesFrame extends JInternalFrame {
         
         abonneService = new AbonneService();
         vehiculeService = new VehiculeService();
+        loader = new AsyncLoader(this);
         
         initComponents();
         loadData();
@@ -162,41 +165,47 @@ public class AbonnesFrame extends JInternalFrame {
     
     private void loadData() {
         tableModel.setRowCount(0);
-        List<Abonne> abonnes = abonneService.listerTousAbonnes();
-        
-        if (abonnes != null) {
-            for (Abonne a : abonnes) {
-                String dateDebut = a.getDateDebut() != null ? 
-                    a.getDateDebut().format(dateFormatter) : "";
-                String dateFin = a.getDateFin() != null ? 
-                    a.getDateFin().format(dateFormatter) : "";
-                String statut = a.estValide() ? "Valide" : "Expiré";
-                String immatriculation = "Inconnu";
-                String proprietaire = "Inconnu";
-                
-                if (a.getVehicule() != null) {
-                    immatriculation = a.getVehicule().getImmatriculation();
-                    proprietaire = a.getVehicule().getProprietaire();
-                }
-                
-                int dureeMois = a.getDureeMois();
-                double montantTotal = a.getMontantTotal();
-                
-                tableModel.addRow(new Object[]{
-                    a.getId(),
-                    a.getVehiculeId(),
-                    immatriculation,
-                    proprietaire,
-                    dateDebut,
-                    dateFin,
-                    dureeMois,
-                    montantTotal,
-                    statut
-                });
+        
+        // Lecture hors EDT page par page, lignes ajoutées au fur et à mesure
+        loader.chargerParLots("abonnes",
+            AsyncLoader.parPages(abonneService::listerAbonnesPage, TAILLE_PAGE),
+            this::ajouterLignes,
+            () -> {},
+            e -> JOptionPane.showMessageDialog(this,
+                "Erreur lors du chargement des abonnés :\n" + e.getMessage(),
+                "Erreur de chargement", JOptionPane.ERROR_MESSAGE));
+    }
+    
+    private void ajouterLignes(List<Abonne> abonnes) {
+        for (Abonne a : abonnes) {
+            String dateDebut = a.getDateDebut() != null ? 
+                a.getDateDebut().format(dateFormatter) : "";
+            String dateFin = a.getDateFin() != null ? 
+                a.getDateFin().format(dateFormatter) : "";
+            String statut = a.estValide() ? "Valide" : "Expiré";
+            String immatriculation = "Inconnu";
+            String proprietaire = "Inconnu";
+            
+            if (a.getVehicule() != null) {
+                immatriculation = a.getVehicule().getImmatriculation();
+                proprietaire = a.getVehicule().getProprietaire();
             }
+            
+            int dureeMois = a.getDureeMois();
+            double montantTotal = a.getMontantTotal();
+            
+            tableModel.addRow(new Object[]{
+                a.getId(),
+                a.getVehiculeId(),
+                immatriculation,
+                proprietaire,
+                dateDebut,
+                dateFin,
+                dureeMois,
+                montantTotal,
+                statut
+            });
         }
-        
-        tableModel.fireTableDataChanged();
     }
     
     // Méthode pour afficher les détails du montant
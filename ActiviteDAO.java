@@ -0,0 +1,176 @@
+package com.gestion.parking.dao;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Fil d'activité (entrées, sorties, abonnements souscrits) fusionné et trié côté base
+public class ActiviteDAO {
+
+    public static final String ENTREE = "ENTREE";
+    public static final String SORTIE = "SORTIE";
+    public static final String ABONNEMENT = "ABONNEMENT";
+
+    // Un événement du fil d'activité
+    public static class Activite {
+        private final String type;
+        private final int sourceId;
+        private final LocalDateTime horodatage;
+        private final String immatriculation;
+        private final String placeNumero;
+        private final LocalDateTime entree;
+        private final Double montant;
+        private final LocalDate dateDebut;
+        private final LocalDate dateFin;
+
+        Activite(String type, int sourceId, LocalDateTime horodatage, String immatriculation, String placeNumero,
+                 LocalDateTime entree, Double montant, LocalDate dateDebut, LocalDate dateFin) {
+            this.type = type;
+            this.sourceId = sourceId;
+            this.horodatage = horodatage;
+            this.immatriculation = immatriculation;
+            this.placeNumero = placeNumero;
+            this.entree = entree;
+            this.montant = montant;
+            this.dateDebut = dateDebut;
+            this.dateFin = dateFin;
+        }
+
+        // Identifiant unique de l'événement (un ticket produit une entrée puis une sortie)
+        public String getCle() {
+            return type + ":" + sourceId;
+        }
+
+        public String getType() {
+            return type;
+        }
+
+        // Id du ticket (ENTREE, SORTIE) ou de l'abonné (ABONNEMENT)
+        public int getSourceId() {
+            return sourceId;
+        }
+
+        public LocalDateTime getHorodatage() {
+            return horodatage;
+        }
+
+        public String getImmatriculation() {
+            return immatriculation;
+        }
+
+        public String getPlaceNumero() {
+            return placeNumero;
+        }
+
+        // Heure d'entrée du ticket (SORTIE uniquement)
+        public LocalDateTime getEntree() {
+            return entree;
+        }
+
+        // Montant du ticket (SORTIE) ou de l'abonnement (ABONNEMENT), null pour une entrée
+        public Double getMontant() {
+            return montant;
+        }
+
+        public LocalDate getDateDebut() {
+            return dateDebut;
+        }
+
+        public LocalDate getDateFin() {
+            return dateFin;
+        }
+    }
+
+    // Les trois sources avec les mêmes colonnes, chacune bornée par un intervalle [?, ?[ sur sa date
+    private static final String UNION_ACTIVITES =
+        "SELECT 'ENTREE' AS type, t.id AS source_id, t.entree AS horodatage, v.immatriculation, " +
+        "p.numero AS place_numero, NULL AS entree, NULL AS montant, NULL AS date_debut, NULL AS date_fin " +
+        "FROM Ticket t LEFT JOIN Vehicule v ON v.id = t.vehicule_id LEFT JOIN Place p ON p.id = t.place_id " +
+        "WHERE t.entree >= ? AND t.entree < ? " +
+        "UNION ALL " +
+        "SELECT 'SORTIE', t.id, t.sortie, v.immatriculation, p.numero, t.entree, t.montant, NULL, NULL " +
+        "FROM Ticket t LEFT JOIN Vehicule v ON v.id = t.vehicule_id LEFT JOIN Place p ON p.id = t.place_id " +
+        "WHERE t.sortie >= ? AND t.sortie < ? " +
+        "UNION ALL " +
+        "SELECT 'ABONNEMENT', a.id, CAST(a.dateDebut AS DATETIME), v.immatriculation, NULL, NULL, " +
+        "TIMESTAMPDIFF(MONTH, a.dateDebut, a.dateFin) * ?, a.dateDebut, a.dateFin " +
+        "FROM Abonne a LEFT JOIN Vehicule v ON v.id = a.vehicule_id " +
+        "WHERE a.dateDebut >= ? AND a.dateDebut < ?";
+
+    // Activités d'une journée, les plus récentes d'abord
+    public List<Activite> findDuJour(LocalDate jour, double prixMensuel, int limite) throws SQLException {
+        String sql = "SELECT * FROM (" + UNION_ACTIVITES + ") f " +
+                     "ORDER BY f.horodatage DESC, f.source_id DESC LIMIT ?";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            int index = lierIntervalles(stmt, jour.atStartOfDay(), jour.plusDays(1).atStartOfDay(), jour, prixMensuel);
+            stmt.setInt(index, limite);
+            return lire(stmt);
+        }
+    }
+
+    // Entrées et sorties horodatées à partir de 'depuis' (inclus) dans la même journée, plus les abonnements
+    // du jour (datés à minuit, ils peuvent être créés après 'depuis'), les plus anciennes d'abord.
+    // L'appelant écarte les événements déjà vus via Activite.getCle()
+    public List<Activite> findDepuis(LocalDateTime depuis, double prixMensuel, int limite) throws SQLException {
+        String sql = "SELECT * FROM (" + UNION_ACTIVITES + ") f " +
+                     "ORDER BY f.horodatage ASC, f.source_id ASC LIMIT ?";
+
+        LocalDate jour = depuis.toLocalDate();
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            int index = lierIntervalles(stmt, depuis, jour.plusDays(1).atStartOfDay(), jour, prixMensuel);
+            stmt.setInt(index, limite);
+            return lire(stmt);
+        }
+    }
+
+    // Tickets sur [debut, fin[, abonnements souscrits le jour donné
+    private int lierIntervalles(PreparedStatement stmt, LocalDateTime debut, LocalDateTime fin,
+                                LocalDate jour, double prixMensuel) throws SQLException {
+        Timestamp tsDebut = Timestamp.valueOf(debut);
+        Timestamp tsFin = Timestamp.valueOf(fin);
+
+        stmt.setTimestamp(1, tsDebut);
+        stmt.setTimestamp(2, tsFin);
+        stmt.setTimestamp(3, tsDebut);
+        stmt.setTimestamp(4, tsFin);
+        stmt.setDouble(5, prixMensuel);
+        stmt.setDate(6, Date.valueOf(jour));
+        stmt.setDate(7, Date.valueOf(jour.plusDays(1)));
+        return 8;
+    }
+
+    private List<Activite> lire(PreparedStatement stmt) throws SQLException {
+        List<Activite> activites = new ArrayList<>();
+
+        try (ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                Timestamp entree = rs.getTimestamp("entree");
+                Date dateDebut = rs.getDate("date_debut");
+                Date dateFin = rs.getDate("date_fin");
+                double montant = rs.getDouble("montant");
+                boolean sansMontant = rs.wasNull();
+
+                activites.add(new Activite(
+                    rs.getString("type"),
+                    rs.getInt("source_id"),
+                    rs.getTimestamp("horodatage").toLocalDateTime(),
+                    rs.getString("immatriculation"),
+                    rs.getString("place_numero"),
+                    entree != null ? entree.toLocalDateTime() : null,
+                    sansMontant ? null : montant,
+                    dateDebut != null ? dateDebut.toLocalDate() : null,
+                    dateFin != null ? dateFin.toLocalDate() : null
+                ));
+            }
+        }
+        return activites;
+    }
+}
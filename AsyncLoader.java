@@ -0,0 +1,227 @@
+package com.gestion.parking.view;
+
+import javax.swing.*;
+import javax.swing.event.InternalFrameAdapter;
+import javax.swing.event.InternalFrameEvent;
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+
+// Chargement des données hors de l'EDT pour une fenêtre interne:
+// - les appels aux services s'exécutent dans un SwingWorker
+// - la fenêtre affiche un état de chargement (curseur d'attente, titre)
+// - un nouveau chargement avec la même clé remplace le précédent
+// - tout est annulé à la fermeture de la fenêtre (les résultats tardifs sont ignorés)
+public class AsyncLoader {
+
+    // Tâche exécutée en arrière-plan
+    public interface Tache<T> {
+        T executer() throws Exception;
+    }
+
+    // Tâche qui publie ses résultats par lots au fur et à mesure
+    public interface TacheIncrementale<V> {
+        void executer(Consumer<List<V>> publier) throws Exception;
+    }
+
+    // Lecture d'une page: "dernier" est le dernier élément de la page précédente (null pour la première)
+    public interface LecturePage<V> {
+        List<V> lire(V dernier, int taille) throws Exception;
+    }
+
+    private static final String SUFFIXE_CHARGEMENT = " (chargement...)";
+
+    private final JInternalFrame frame;
+    private final Map<String, SwingWorker<?, ?>> travaux = new HashMap<>();
+    private boolean ferme = false;
+
+    public AsyncLoader(JInternalFrame frame) {
+        this.frame = frame;
+        frame.addInternalFrameListener(new InternalFrameAdapter() {
+            @Override
+            public void internalFrameClosed(InternalFrameEvent e) {
+                ferme = true;
+                annulerTout();
+            }
+        });
+    }
+
+    // Charger un résultat unique
+    public <T> void charger(String cle, Tache<T> tache, Consumer<T> surSucces) {
+        charger(cle, tache, surSucces, this::signalerErreur);
+    }
+
+    public <T> void charger(String cle, Tache<T> tache, Consumer<T> surSucces, Consumer<Exception> surErreur) {
+        demarrer(cle, new Travail<T, Void>(cle) {
+            @Override
+            protected T doInBackground() throws Exception {
+                return tache.executer();
+            }
+
+            @Override
+            void surTermine(T resultat) {
+                surSucces.accept(resultat);
+            }
+
+            @Override
+            void surErreur(Exception e) {
+                surErreur.accept(e);
+            }
+        });
+    }
+
+    // Charger par lots: surLot est appelé sur l'EDT à chaque lot publié, puis surFin
+    public <V> void chargerParLots(String cle, TacheIncrementale<V> tache, Consumer<List<V>> surLot,
+                                   Runnable surFin, Consumer<Exception> surErreur) {
+        demarrer(cle, new Travail<Void, List<V>>(cle) {
+            @Override
+            protected Void doInBackground() throws Exception {
+                tache.executer(lot -> {
+                    if (!isCancelled()) {
+                        publish(lot);
+                    }
+                });
+                return null;
+            }
+
+            @Override
+            protected void process(List<List<V>> lots) {
+                if (!estActuel(this)) {
+                    return;
+                }
+                for (List<V> lot : lots) {
+                    surLot.accept(lot);
+                }
+            }
+
+            @Override
+            void surTermine(Void resultat) {
+                surFin.run();
+            }
+
+            @Override
+            void surErreur(Exception e) {
+                surErreur.accept(e);
+            }
+        });
+    }
+
+    // Publier une lecture paginée page par page, jusqu'à une page incomplète: chaque page est lue
+    // après la publication de la précédente, la liste complète n'est jamais chargée d'un bloc.
+    // Le chargement annulé (thread interrompu) s'arrête avant la page suivante.
+    // Une page null (erreur SQL signalée par le service) est un échec: surErreur est appelé,
+    // la table n'est pas laissée tronquée sans avertissement.
+    public static <V> TacheIncrementale<V> parPages(LecturePage<V> lecture, int taillePage) {
+        return publier -> {
+            V dernier = null;
+            while (!Thread.currentThread().isInterrupted()) {
+                List<V> page = lecture.lire(dernier, taillePage);
+                if (page == null) {
+                    throw new IllegalStateException("Lecture interrompue par une erreur d'accès à la base");
+                }
+                if (page.isEmpty()) {
+                    return;
+                }
+                publier.accept(page);
+                if (page.size() < taillePage) {
+                    return;
+                }
+                dernier = page.get(page.size() - 1);
+            }
+        };
+    }
+
+    public boolean estEnCours(String cle) {
+        return travaux.containsKey(cle);
+    }
+
+    // Annuler tous les chargements en cours
+    public void annulerTout() {
+        List<SwingWorker<?, ?>> enCours = new ArrayList<>(travaux.values());
+        travaux.clear();
+        for (SwingWorker<?, ?> travail : enCours) {
+            travail.cancel(true);
+        }
+        afficherChargement(false);
+    }
+
+    private void demarrer(String cle, Travail<?, ?> travail) {
+        if (ferme) {
+            return;
+        }
+        SwingWorker<?, ?> precedent = travaux.put(cle, travail);
+        if (precedent != null) {
+            precedent.cancel(true);
+        }
+        afficherChargement(true);
+        travail.execute();
+    }
+
+    private boolean estActuel(Travail<?, ?> travail) {
+        return travaux.get(travail.cle) == travail;
+    }
+
+    private void terminer(Travail<?, ?> travail) {
+        if (estActuel(travail)) {
+            travaux.remove(travail.cle);
+        }
+        if (travaux.isEmpty()) {
+            afficherChargement(false);
+        }
+    }
+
+    private void afficherChargement(boolean enCours) {
+        String titre = frame.getTitle() != null ? frame.getTitle() : "";
+        boolean affiche = titre.endsWith(SUFFIXE_CHARGEMENT);
+
+        if (enCours && !affiche) {
+            frame.setTitle(titre + SUFFIXE_CHARGEMENT);
+            frame.setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+        } else if (!enCours && affiche) {
+            frame.setTitle(titre.substring(0, titre.length() - SUFFIXE_CHARGEMENT.length()));
+            frame.setCursor(Cursor.getDefaultCursor());
+        }
+    }
+
+    private void signalerErreur(Exception e) {
+        System.err.println("Erreur lors du chargement des données: " + e.getMessage());
+    }
+
+    // SwingWorker dont le résultat n'est appliqué que s'il n'a été ni annulé ni remplacé
+    private abstract class Travail<T, V> extends SwingWorker<T, V> {
+        final String cle;
+
+        Travail(String cle) {
+            this.cle = cle;
+        }
+
+        @Override
+        protected final void done() {
+            boolean actuel = estActuel(this);
+            terminer(this);
+            if (!actuel || isCancelled()) {
+                return;
+            }
+
+            try {
+                surTermine(get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (CancellationException e) {
+                // Annulé entre-temps: rien à appliquer
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                surErreur(cause instanceof Exception ? (Exception) cause : new Exception(cause));
+            }
+        }
+
+        abstract void surTermine(T resultat);
+
+        abstract void surErreur(Exception e);
+    }
+}
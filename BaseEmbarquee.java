@@ -0,0 +1,141 @@
+package com.gestion.parking.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.SplittableRandom;
+
+// Profil embarqué (parking.db.profil=embarque): base H2 en mémoire en mode MySQL, créée par les
+// scripts de migration habituels puis remplie de données synthétiques reproductibles (graine fixe).
+// Permet d'exercer toute la couche service (TicketService, StatistiqueService...) sans serveur MySQL.
+public final class BaseEmbarquee {
+    private static final int TAILLE_LOT = 1000;
+    // Historique des tickets et paiements réparti sur cette période
+    private static final int JOURS_HISTORIQUE = 90;
+
+    private static boolean preparee = false;
+
+    private BaseEmbarquee() {}
+
+    // Immatriculation (valide pour VehiculeDAO) du n-ième véhicule généré; les 'abonnes' premiers sont abonnés
+    public static String immatriculation(int n) {
+        return String.format("BK-%06d", n);
+    }
+
+    // Préparer la base avec les volumes configurés (parking.db.embarque.xxx)
+    public static void preparer() throws SQLException {
+        ConfigurationBase config = ConfigurationBase.get();
+        preparer(config.entier("parking.db.embarque.places", 200),
+                 config.entier("parking.db.embarque.vehicules", 1000),
+                 config.entier("parking.db.embarque.tickets", 20000),
+                 config.entier("parking.db.embarque.paiements", 20000),
+                 config.entier("parking.db.embarque.abonnes", 100));
+    }
+
+    // Migrer puis remplir la base si elle est vide (une seule fois par JVM)
+    public static synchronized void preparer(int places, int vehicules, int tickets, int paiements, int abonnes)
+            throws SQLException {
+        if (preparee) {
+            return;
+        }
+        if (!ConfigurationBase.get().estEmbarque()) {
+            throw new IllegalStateException("Données synthétiques refusées hors du profil embarqué");
+        }
+
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            new MigrationRunner().migrer(conn);
+            if (estVide(conn)) {
+                remplir(conn, places, vehicules, tickets, paiements, abonnes);
+            }
+        }
+        preparee = true;
+    }
+
+    private static boolean estVide(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM Place")) {
+            return rs.next() && rs.getInt(1) == 0;
+        }
+    }
+
+    private static void remplir(Connection conn, int places, int vehicules, int tickets, int paiements, int abonnes)
+            throws SQLException {
+        long debut = System.currentTimeMillis();
+        long graine = ConfigurationBase.get().entierLong("parking.db.embarque.graine", 42L);
+        SplittableRandom aleatoire = new SplittableRandom(graine);
+        LocalDateTime maintenant = LocalDateTime.now();
+        LocalDate aujourdhui = maintenant.toLocalDate();
+        int nombrePlaces = Math.max(1, places);
+        int nombreVehicules = Math.max(1, vehicules);
+
+        conn.setAutoCommit(false);
+        try {
+            inserer(conn, "INSERT INTO Place (numero, statut) VALUES (?, 'LIBRE')", nombrePlaces, (stmt, i) ->
+                stmt.setString(1, String.format("P%05d", i + 1)));
+
+            inserer(conn, "INSERT INTO Vehicule (immatriculation, proprietaire) VALUES (?, ?)", nombreVehicules, (stmt, i) -> {
+                stmt.setString(1, immatriculation(i + 1));
+                stmt.setString(2, "Propriétaire " + (i + 1));
+            });
+
+            inserer(conn, "INSERT INTO Abonne (vehicule_id, dateDebut, dateFin) VALUES (?, ?, ?)",
+                Math.min(abonnes, nombreVehicules), (stmt, i) -> {
+                    stmt.setInt(1, i + 1);
+                    stmt.setDate(2, java.sql.Date.valueOf(aujourdhui.minusMonths(1)));
+                    stmt.setDate(3, java.sql.Date.valueOf(aujourdhui.plusMonths(2)));
+                });
+
+            // Tickets clôturés uniquement: toutes les places restent libres pour les entrées
+            inserer(conn, "INSERT INTO Ticket (place_id, vehicule_id, entree, sortie, montant) VALUES (?, ?, ?, ?, ?)",
+                tickets, (stmt, i) -> {
+                    LocalDateTime entree = maintenant.minusMinutes(600 + aleatoire.nextInt(JOURS_HISTORIQUE * 24 * 60));
+                    int minutes = 10 + aleatoire.nextInt(480);
+                    stmt.setInt(1, 1 + aleatoire.nextInt(nombrePlaces));
+                    stmt.setInt(2, 1 + aleatoire.nextInt(nombreVehicules));
+                    stmt.setTimestamp(3, Timestamp.valueOf(entree));
+                    stmt.setTimestamp(4, Timestamp.valueOf(entree.plusMinutes(minutes)));
+                    stmt.setDouble(5, Math.ceil(minutes / 60.0) * 10.0);
+                });
+
+            inserer(conn, "INSERT INTO Paiement (ticket_id, montant, `date`) VALUES (?, ?, ?)",
+                Math.min(paiements, tickets), (stmt, i) -> {
+                    stmt.setInt(1, i + 1);
+                    stmt.setDouble(2, 10.0 * (1 + aleatoire.nextInt(8)));
+                    stmt.setTimestamp(3, Timestamp.valueOf(maintenant.minusMinutes(aleatoire.nextInt(JOURS_HISTORIQUE * 24 * 60))));
+                });
+
+            conn.commit();
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
+        }
+
+        System.out.println("Base embarquée remplie en " + (System.currentTimeMillis() - debut) + " ms: " +
+            nombrePlaces + " places, " + nombreVehicules + " véhicules, " + tickets + " tickets, " +
+            Math.min(paiements, tickets) + " paiements, " + Math.min(abonnes, nombreVehicules) + " abonnés");
+    }
+
+    private interface Remplissage {
+        void lier(PreparedStatement stmt, int i) throws SQLException;
+    }
+
+    private static void inserer(Connection conn, String sql, int nombre, Remplissage remplissage) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (int i = 0; i < nombre; i++) {
+                remplissage.lier(stmt, i);
+                stmt.addBatch();
+                if ((i + 1) % TAILLE_LOT == 0) {
+                    stmt.executeBatch();
+                }
+            }
+            stmt.executeBatch();
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.gestion.parking.dao;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+import java.util.Properties;
+
+// Configuration de l'application (source de données, pool, réglages).
+// Chaque clé est cherchée, par ordre de priorité, dans:
+// 1. les propriétés système (-Dparking.db.url=...)
+// 2. les variables d'environnement (PARKING_DB_URL=...: majuscules, '.' remplacé par '_')
+// 3. le fichier désigné par parking.config / PARKING_CONFIG, sinon parking.properties sur le classpath
+// 4. la valeur par défaut (MySQL local)
+public final class ConfigurationBase {
+
+    public enum Profil {
+        // Serveur MySQL (production)
+        MYSQL("com.mysql.cj.jdbc.Driver", "jdbc:mysql://localhost:3306/gestion_parking", "root"),
+        // Base H2 en mémoire, en mode MySQL, créée et remplie au démarrage (tests, mesures de performance)
+        EMBARQUE("org.h2.Driver",
+            "jdbc:h2:mem:gestion_parking;MODE=MySQL;DATABASE_TO_LOWER=TRUE;CASE_INSENSITIVE_IDENTIFIERS=TRUE;" +
+            "NON_KEYWORDS=DATE,VALUE;DB_CLOSE_DELAY=-1", "sa");
+
+        final String driverParDefaut;
+        final String urlParDefaut;
+        final String utilisateurParDefaut;
+
+        Profil(String driverParDefaut, String urlParDefaut, String utilisateurParDefaut) {
+            this.driverParDefaut = driverParDefaut;
+            this.urlParDefaut = urlParDefaut;
+            this.utilisateurParDefaut = utilisateurParDefaut;
+        }
+    }
+
+    private static final String FICHIER_PAR_DEFAUT = "parking.properties";
+
+    private static volatile ConfigurationBase instance;
+
+    private final Properties fichier;
+
+    private ConfigurationBase(Properties fichier) {
+        this.fichier = fichier;
+    }
+
+    // Configuration lue au premier usage
+    public static ConfigurationBase get() {
+        ConfigurationBase c = instance;
+        if (c == null) {
+            synchronized (ConfigurationBase.class) {
+                c = instance;
+                if (c == null) {
+                    c = new ConfigurationBase(lireFichier());
+                    instance = c;
+                }
+            }
+        }
+        return c;
+    }
+
+    public Profil getProfil() {
+        String valeur = valeur("parking.db.profil", Profil.MYSQL.name());
+        try {
+            return Profil.valueOf(valeur.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException("Profil de base de données inconnu: " + valeur +
+                " (valeurs possibles: mysql, embarque)");
+        }
+    }
+
+    public boolean estEmbarque() {
+        return getProfil() == Profil.EMBARQUE;
+    }
+
+    public String getDriver() {
+        return valeur("parking.db.driver", getProfil().driverParDefaut);
+    }
+
+    public String getUrl() {
+        return valeur("parking.db.url", getProfil().urlParDefaut);
+    }
+
+    public String getUtilisateur() {
+        return valeur("parking.db.utilisateur", getProfil().utilisateurParDefaut);
+    }
+
+    public String getMotDePasse() {
+        return valeur("parking.db.motDePasse", "");
+    }
+
+    // Valeur brute d'une clé (null si absente partout)
+    public String valeur(String cle) {
+        String valeur = System.getProperty(cle);
+        if (valeur == null) {
+            valeur = System.getenv(nomVariable(cle));
+        }
+        if (valeur == null) {
+            valeur = fichier.getProperty(cle);
+        }
+        return valeur;
+    }
+
+    public String valeur(String cle, String defaut) {
+        String valeur = valeur(cle);
+        return valeur != null ? valeur : defaut;
+    }
+
+    public int entier(String cle, int defaut) {
+        String valeur = valeur(cle);
+        if (valeur == null) {
+            return defaut;
+        }
+        try {
+            return Integer.parseInt(valeur.trim());
+        } catch (NumberFormatException e) {
+            System.err.println("Valeur entière invalide pour " + cle + ": " + valeur + " (défaut " + defaut + ")");
+            return defaut;
+        }
+    }
+
+    public long entierLong(String cle, long defaut) {
+        String valeur = valeur(cle);
+        if (valeur == null) {
+            return defaut;
+        }
+        try {
+            return Long.parseLong(valeur.trim());
+        } catch (NumberFormatException e) {
+            System.err.println("Valeur entière invalide pour " + cle + ": " + valeur + " (défaut " + defaut + ")");
+            return defaut;
+        }
+    }
+
+    // parking.db.motDePasse -> PARKING_DB_MOTDEPASSE
+    static String nomVariable(String cle) {
+        return cle.replace('.', '_').toUpperCase(Locale.ROOT);
+    }
+
+    private static Properties lireFichier() {
+        Properties proprietes = new Properties();
+        String chemin = System.getProperty("parking.config", System.getenv("PARKING_CONFIG"));
+
+        try {
+            if (chemin != null) {
+                try (InputStream in = new FileInputStream(chemin)) {
+                    proprietes.load(in);
+                }
+            } else {
+                try (InputStream in = ConfigurationBase.class.getClassLoader().getResourceAsStream(FICHIER_PAR_DEFAUT)) {
+                    if (in != null) {
+                        proprietes.load(in);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Lecture de la configuration impossible (" + chemin + "): " + e.getMessage());
+        }
+        return proprietes;
+    }
+}
@@ -0,0 +1,261 @@
+package com.gestion.parking.dao;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Pool borné de connexions JDBC utilisé derrière DatabaseConnection.getConnection()
+public class ConnectionPool {
+
+    // Ouverture d'une connexion physique (fournie par DatabaseConnection)
+    public interface FabriqueConnexion {
+        Connection ouvrir() throws SQLException;
+    }
+
+    private final FabriqueConnexion fabrique;
+    private final int tailleMin;
+    private final int tailleMax;
+    private final long delaiValidationMs;
+    private final long delaiInactiviteMaxMs;
+    private final long delaiAttenteMs;
+
+    // Connexions disponibles, la plus récemment rendue en tête (LIFO)
+    private final LinkedBlockingDeque<ConnexionInactive> inactives = new LinkedBlockingDeque<>();
+    private final Semaphore permis;
+    private final AtomicInteger totalPhysiques = new AtomicInteger();
+    private final AtomicInteger empruntees = new AtomicInteger();
+    private final AtomicInteger attentesExpirees = new AtomicInteger();
+    private final ScheduledExecutorService evicteur;
+    private volatile boolean ferme = false;
+
+    public ConnectionPool(FabriqueConnexion fabrique, int tailleMin, int tailleMax,
+                          long delaiValidationMs, long delaiInactiviteMaxMs, long delaiAttenteMs) {
+        if (tailleMax <= 0 || tailleMin < 0 || tailleMin > tailleMax) {
+            throw new IllegalArgumentException("Tailles de pool invalides: min=" + tailleMin + ", max=" + tailleMax);
+        }
+        this.fabrique = fabrique;
+        this.tailleMin = tailleMin;
+        this.tailleMax = tailleMax;
+        this.delaiValidationMs = delaiValidationMs;
+        this.delaiInactiviteMaxMs = delaiInactiviteMaxMs;
+        this.delaiAttenteMs = delaiAttenteMs;
+        this.permis = new Semaphore(tailleMax, true);
+
+        this.evicteur = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "pool-connexions-eviction");
+            t.setDaemon(true);
+            return t;
+        });
+        long periode = Math.max(1000, delaiInactiviteMaxMs / 2);
+        evicteur.scheduleWithFixedDelay(this::evincerInactives, periode, periode, TimeUnit.MILLISECONDS);
+    }
+
+    // Ouvrir les connexions minimales (sans échec si la base est indisponible)
+    public void prechauffer() {
+        while (totalPhysiques.get() < tailleMin && !ferme) {
+            try {
+                Connection physique = fabrique.ouvrir();
+                totalPhysiques.incrementAndGet();
+                inactives.offerLast(new ConnexionInactive(physique));
+            } catch (SQLException e) {
+                System.err.println("Préchauffage du pool interrompu: " + e.getMessage());
+                return;
+            }
+        }
+    }
+
+    // Emprunter une connexion (à rendre via close())
+    public Connection emprunter() throws SQLException {
+        if (ferme) {
+            throw new SQLException("Le pool de connexions est fermé");
+        }
+
+        try {
+            if (!permis.tryAcquire(delaiAttenteMs, TimeUnit.MILLISECONDS)) {
+                attentesExpirees.incrementAndGet();
+                throw new SQLException("Aucune connexion disponible après " + delaiAttenteMs + " ms (max=" + tailleMax + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interruption pendant l'attente d'une connexion", e);
+        }
+
+        try {
+            Connection physique = prendreInactiveValide();
+            if (physique == null) {
+                physique = fabrique.ouvrir();
+                totalPhysiques.incrementAndGet();
+            }
+            empruntees.incrementAndGet();
+            return envelopper(physique);
+        } catch (SQLException | RuntimeException e) {
+            permis.release();
+            throw e;
+        }
+    }
+
+    // Valider uniquement les connexions restées inactives au-delà du délai de validation
+    private Connection prendreInactiveValide() {
+        ConnexionInactive inactive;
+        while ((inactive = inactives.pollFirst()) != null) {
+            long inactivite = System.currentTimeMillis() - inactive.depuis;
+            if (inactivite < delaiValidationMs || estValide(inactive.connexion)) {
+                return inactive.connexion;
+            }
+            fermerPhysique(inactive.connexion);
+        }
+        return null;
+    }
+
+    private boolean estValide(Connection conn) {
+        try {
+            return !conn.isClosed() && conn.isValid(2);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    // Remettre une connexion dans le pool après usage
+    private void rendre(Connection physique) {
+        empruntees.decrementAndGet();
+        try {
+            if (ferme || physique.isClosed()) {
+                fermerPhysique(physique);
+                return;
+            }
+
+            // Remettre la connexion dans son état par défaut
+            if (!physique.getAutoCommit()) {
+                physique.rollback();
+                physique.setAutoCommit(true);
+            }
+            if (physique.isReadOnly()) {
+                physique.setReadOnly(false);
+            }
+            physique.clearWarnings();
+
+            inactives.offerFirst(new ConnexionInactive(physique));
+        } catch (SQLException e) {
+            System.err.println("Connexion écartée lors du retour au pool: " + e.getMessage());
+            fermerPhysique(physique);
+        } finally {
+            permis.release();
+        }
+    }
+
+    // Fermer les connexions inactives depuis trop longtemps (en conservant le minimum)
+    private void evincerInactives() {
+        long maintenant = System.currentTimeMillis();
+        Iterator<ConnexionInactive> it = inactives.descendingIterator();
+
+        while (it.hasNext() && totalPhysiques.get() > tailleMin) {
+            ConnexionInactive inactive = it.next();
+            if (maintenant - inactive.depuis >= delaiInactiviteMaxMs && inactives.remove(inactive)) {
+                fermerPhysique(inactive.connexion);
+            }
+        }
+    }
+
+    private void fermerPhysique(Connection physique) {
+        totalPhysiques.decrementAndGet();
+        try {
+            physique.close();
+        } catch (SQLException e) {
+            System.err.println("Erreur lors de la fermeture de la connexion: " + e.getMessage());
+        }
+    }
+
+    // Fermer le pool et toutes les connexions inactives
+    public void fermer() {
+        ferme = true;
+        evicteur.shutdownNow();
+        ConnexionInactive inactive;
+        while ((inactive = inactives.pollFirst()) != null) {
+            fermerPhysique(inactive.connexion);
+        }
+    }
+
+    // Statistiques d'utilisation du pool
+    public int getTailleMax() {
+        return tailleMax;
+    }
+
+    public int getNombreConnexions() {
+        return totalPhysiques.get();
+    }
+
+    public int getNombreEmpruntees() {
+        return empruntees.get();
+    }
+
+    public int getNombreInactives() {
+        return inactives.size();
+    }
+
+    public int getNombreEnAttente() {
+        return permis.getQueueLength();
+    }
+
+    public int getNombreAttentesExpirees() {
+        return attentesExpirees.get();
+    }
+
+    // Proxy dont close() rend la connexion au pool au lieu de la fermer
+    private Connection envelopper(Connection physique) {
+        AtomicBoolean rendue = new AtomicBoolean(false);
+
+        InvocationHandler handler = (proxy, method, args) -> {
+            String nom = method.getName();
+
+            if ("close".equals(nom) && method.getParameterCount() == 0) {
+                if (rendue.compareAndSet(false, true)) {
+                    rendre(physique);
+                }
+                return null;
+            }
+            if ("isClosed".equals(nom) && method.getParameterCount() == 0) {
+                return rendue.get() || physique.isClosed();
+            }
+            if ("equals".equals(nom) && method.getParameterCount() == 1) {
+                return proxy == args[0];
+            }
+            if ("hashCode".equals(nom) && method.getParameterCount() == 0) {
+                return System.identityHashCode(proxy);
+            }
+            if ("toString".equals(nom) && method.getParameterCount() == 0) {
+                return "ConnexionPool[" + physique + "]";
+            }
+            if (rendue.get()) {
+                throw new SQLException("Connexion déjà rendue au pool");
+            }
+            try {
+                return method.invoke(physique, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        };
+
+        return (Connection) Proxy.newProxyInstance(
+            Connection.class.getClassLoader(), new Class<?>[]{Connection.class}, handler);
+    }
+
+    private static final class ConnexionInactive {
+        final Connection connexion;
+        final long depuis;
+
+        ConnexionInactive(Connection connexion) {
+            this.connexion = connexion;
+            this.depuis = System.currentTimeMillis();
+        }
+    }
+}
@@ -13,12 +13,27 @@ import java.util.*;
 import java.util.List;
 import com.gestion.parking.service.*;
 import com.gestion.parking.model.*;
+import com.gestion.parking.dao.ActiviteDAO;
+import com.gestion.parking.dao.ConfigurationBase;
+import com.gestion.parking.dao.ActiviteDAO.Activite;
 
 public class DashboardFrame extends JInternalFrame {
     private StatistiqueService statsService;
-    private PlaceService placeService;
     private TicketService ticketService;
-    private AbonneService abonneService;
+    private AsyncLoader loader;
+    
+    // Composants mis à jour à la fin du chargement asynchrone
+    private final Map<String, JLabel> valeursCartes = new HashMap<>();
+    private DefaultTableModel activityModel;
+    private JLabel activityCountLabel;
+    private JLabel dateLabel;
+    private javax.swing.Timer rafraichissement;
+    
+    // Fil d'activité affiché (EDT uniquement): les rafraîchissements ne lisent que les nouveaux événements
+    private final List<ActivityItem> activitesAffichees = new ArrayList<>();
+    private final Set<String> clesActivites = new HashSet<>();
+    private LocalDate jourActivites;
+    private LocalDateTime derniereActivite;
     
     // Couleurs jaune/noir
     private static final Color COLOR_PRIMARY = new Color(255, 193, 7); // Jaune doré
@@ -33,6 +48,12 @@ public class DashboardFrame extends JInternalFrame {
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy");
     private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm");
     
+    // Période de rafraîchissement automatique (0 pour désactiver)
+    private static final int RAFRAICHISSEMENT_SEC = ConfigurationBase.get().entier("parking.dashboard.rafraichissementSec", 30);
+    
+    // Nombre maximal d'activités affichées
+    private static final int LIMITE_ACTIVITES = 200;
+    
     public DashboardFrame() {
         super("Tableau de Bord", true, true, true, true);
         // Taille maximisée au démarrage
@@ -40,11 +61,179 @@ public class DashboardFrame extends JInternalFrame {
                 Toolkit.getDefaultToolkit().getScreenSize().height - 100);
         
         statsService = new StatistiqueService();
-        placeService = new PlaceService();
         ticketService = new TicketService();
-        abonneService = new AbonneService();
+        loader = new AsyncLoader(this);
         
+        // Construire l'interface immédiatement, les données arrivent en arrière-plan
         initComponents();
+        chargerDonnees();
+        demarrerRafraichissement();
+    }
+    
+    // Rafraîchissement périodique: le Timer déclenche sur l'EDT, la lecture se fait en arrière-plan
+    private void demarrerRafraichissement() {
+        if (RAFRAICHISSEMENT_SEC <= 0) {
+            return;
+        }
+        rafraichissement = new javax.swing.Timer(RAFRAICHISSEMENT_SEC * 1000, e -> {
+            // Ne pas empiler les lectures si la précédente n'est pas terminée
+            if (!loader.estEnCours("dashboard")) {
+                chargerDonnees();
+            }
+        });
+        rafraichissement.start();
+        
+        addInternalFrameListener(new javax.swing.event.InternalFrameAdapter() {
+            @Override
+            public void internalFrameClosed(javax.swing.event.InternalFrameEvent e) {
+                rafraichissement.stop();
+            }
+        });
+    }
+    
+    private void chargerDonnees() {
+        // Lecture complète au premier chargement et au changement de jour, incrémentale ensuite
+        LocalDate jour = LocalDate.now();
+        LocalDateTime depuis = null;
+        if (jour.equals(jourActivites)) {
+            depuis = derniereActivite != null ? derniereActivite : jour.atStartOfDay();
+        }
+        
+        LocalDateTime depuisActivites = depuis;
+        loader.charger("dashboard", () -> lireDonnees(jour, depuisActivites), this::afficherDonnees, e -> {
+            System.err.println("Erreur lors du chargement du tableau de bord: " + e.getMessage());
+            activityCountLabel.setText("Erreur lors du chargement des données");
+        });
+    }
+    
+    // Exécuté hors EDT: uniquement des appels aux services
+    private DonneesDashboard lireDonnees(LocalDate jour, LocalDateTime depuis) {
+        DonneesDashboard donnees = new DonneesDashboard();
+        donnees.jour = jour;
+        donnees.incremental = depuis != null;
+        
+        // Toutes les cartes à partir d'un seul instantané (une requête, mise en cache quelques secondes)
+        IndicateursDashboard indicateurs = statsService.obtenirIndicateurs();
+        donnees.caJour = indicateurs.getChiffreAffairesJour();
+        donnees.totalPlaces = indicateurs.getTotalPlaces();
+        donnees.placesOccupees = indicateurs.getPlacesOccupees();
+        donnees.placesDispo = indicateurs.getPlacesLibres();
+        donnees.tauxOccupation = indicateurs.getTauxOccupation();
+        donnees.abonnesValides = indicateurs.getAbonnesValides();
+        
+        // Activités du jour (ou seulement les nouvelles), déjà filtrées et triées par la base
+        List<Activite> activites = donnees.incremental
+            ? statsService.listerActivitesDepuis(depuis, LIMITE_ACTIVITES)
+            : statsService.listerActivitesDuJour(jour, LIMITE_ACTIVITES);
+        
+        if (activites != null) {
+            donnees.activites = new ArrayList<>();
+            for (Activite activite : activites) {
+                donnees.activites.add(versActivityItem(activite));
+            }
+        }
+        return donnees;
+    }
+    
+    private void afficherDonnees(DonneesDashboard donnees) {
+        mettreAJourTexte(dateLabel, LocalDate.now().format(DATE_FORMATTER));
+        mettreAJourTexte(valeursCartes.get("CHIFFRE D'AFFAIRE"), String.format("%.0f DH", donnees.caJour));
+        mettreAJourTexte(valeursCartes.get("PLACES TOTALES"), String.valueOf(donnees.totalPlaces));
+        mettreAJourTexte(valeursCartes.get("PLACES OCCUPÉES"), String.valueOf(donnees.placesOccupees));
+        mettreAJourTexte(valeursCartes.get("PLACES LIBRES"), String.valueOf(donnees.placesDispo));
+        mettreAJourTexte(valeursCartes.get("TAUX D'OCCUPATION"), String.format("%.1f%%", donnees.tauxOccupation));
+        mettreAJourTexte(valeursCartes.get("ABONNÉS ACTIFS"), String.valueOf(donnees.abonnesValides));
+        
+        if (donnees.activites != null) {
+            fusionnerActivites(donnees);
+        }
+        
+        List<Object[]> lignes = new ArrayList<>();
+        for (ActivityItem activity : activitesAffichees) {
+            lignes.add(new Object[]{
+                activity.time.format(TIME_FORMATTER),
+                activity.action,
+                activity.vehicle,
+                activity.details,
+                activity.montant
+            });
+        }
+        
+        if (lignes.isEmpty()) {
+            lignes.add(new Object[]{"--:--", "Aucune activité", "aujourd'hui", "--", "--"});
+        }
+        
+        mettreAJourActivites(lignes);
+        mettreAJourTexte(activityCountLabel, activitesAffichees.size() >= LIMITE_ACTIVITES
+            ? "Les " + LIMITE_ACTIVITES + " activités les plus récentes d'aujourd'hui"
+            : activitesAffichees.size() + " activités enregistrées aujourd'hui");
+    }
+    
+    // Intégrer les activités lues au fil affiché (remplacement complet ou ajout des nouveaux événements)
+    private void fusionnerActivites(DonneesDashboard donnees) {
+        if (!donnees.incremental || !donnees.jour.equals(jourActivites)) {
+            activitesAffichees.clear();
+            clesActivites.clear();
+            derniereActivite = null;
+            jourActivites = donnees.jour;
+        }
+        
+        for (ActivityItem activity : donnees.activites) {
+            if (clesActivites.add(activity.cle)) {
+                activitesAffichees.add(activity);
+            }
+            if (derniereActivite == null || activity.time.isAfter(derniereActivite)) {
+                derniereActivite = activity.time;
+            }
+        }
+        
+        // Trier par heure décroissante et ne garder que les plus récentes
+        activitesAffichees.sort((a1, a2) -> a2.time.compareTo(a1.time));
+        if (activitesAffichees.size() > LIMITE_ACTIVITES) {
+            activitesAffichees.subList(LIMITE_ACTIVITES, activitesAffichees.size()).clear();
+        }
+    }
+    
+    // Ne toucher un label que si sa valeur a changé
+    private void mettreAJourTexte(JLabel label, String texte) {
+        if (!texte.equals(label.getText())) {
+            label.setText(texte);
+        }
+    }
+    
+    // Mettre à jour la table d'activité cellule par cellule: seules les cellules modifiées sont redessinées
+    private void mettreAJourActivites(List<Object[]> lignes) {
+        int communes = Math.min(lignes.size(), activityModel.getRowCount());
+        
+        for (int row = 0; row < communes; row++) {
+            Object[] ligne = lignes.get(row);
+            for (int col = 0; col < ligne.length; col++) {
+                if (!Objects.equals(activityModel.getValueAt(row, col), ligne[col])) {
+                    activityModel.setValueAt(ligne[col], row, col);
+                }
+            }
+        }
+        
+        for (int row = communes; row < lignes.size(); row++) {
+            activityModel.addRow(lignes.get(row));
+        }
+        
+        while (activityModel.getRowCount() > lignes.size()) {
+            activityModel.removeRow(activityModel.getRowCount() - 1);
+        }
+    }
+    
+    // Résultat d'un chargement du tableau de bord
+    private static class DonneesDashboard {
+        double caJour;
+        int totalPlaces;
+        int placesOccupees;
+        int placesDispo;
+        double tauxOccupation;
+        int abonnesValides;
+        LocalDate jour;
+        boolean incremental;
+        List<ActivityItem> activites;
     }
     
     private void initComponents() {
@@ -68,7 +257,7 @@ public class DashboardFrame extends JInternalFrame {
         JPanel rightPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 10, 0));
         rightPanel.setBackground(COLOR_BACKGROUND);
         
-        JLabel dateLabel = new JLabel(LocalDate.now().format(DATE_FORMATTER));
+        dateLabel = new JLabel(LocalDate.now().format(DATE_FORMATTER));
         dateLabel.setFont(new Font("Segoe UI", Font.PLAIN, 14));
         dateLabel.setForeground(COLOR_TEXT_LIGHT);
         
@@ -136,13 +325,8 @@ public class DashboardFrame extends JInternalFrame {
         JPanel panel = new JPanel(new GridLayout(1, 6, 15, 0));
         panel.setBackground(COLOR_BACKGROUND);
         
-        // Récupérer les statistiques
-        double caJour = calculerChiffreAffairesDuJour();
-        int totalPlaces = statsService.obtenirNombreTotalPlaces();
-        int placesOccupees = statsService.obtenirNombrePlacesOccupees();
-        int placesDispo = statsService.obtenirNombrePlacesDisponibles();
-        double tauxOccupation = statsService.obtenirTauxOccupation();
-        int abonnesValides = statsService.obtenirNombreAbonnesValides();
+        // Valeurs affichées à la fin du chargement (voir afficherDonnees)
+        String enAttente = "...";
         
         // Couleurs jaunes nuancées pour les cartes
         Color caColor = new Color(255, 193, 7); // Jaune doré principal
@@ -153,75 +337,26 @@ public class DashboardFrame extends JInternalFrame {
         Color abonneColor = new Color(255, 204, 0); // Jaune doré foncé
         
         panel.add(createStatCard("CHIFFRE D'AFFAIRE", 
-            String.format("%.0f DH", caJour), "Aujourd'hui", caColor));
+            enAttente, "Aujourd'hui", caColor));
         
         panel.add(createStatCard("PLACES TOTALES", 
-            String.valueOf(totalPlaces), "Capacité max", totalColor));
+            enAttente, "Capacité max", totalColor));
         
         panel.add(createStatCard("PLACES OCCUPÉES", 
-            String.valueOf(placesOccupees), "En cours", occupeeColor));
+            enAttente, "En cours", occupeeColor));
         
         panel.add(createStatCard("PLACES LIBRES", 
-            String.valueOf(placesDispo), "Disponibles", libreColor));
+            enAttente, "Disponibles", libreColor));
         
         panel.add(createStatCard("TAUX D'OCCUPATION", 
-            String.format("%.1f%%", tauxOccupation), tauxColor));
+            enAttente, tauxColor));
         
         panel.add(createStatCard("ABONNÉS ACTIFS", 
-            String.valueOf(abonnesValides), abonneColor));
+            enAttente, abonneColor));
         
         return panel;
     }
     
-    // Méthode pour calculer le chiffre d'affaires du jour (tickets + abonnements + renouvellements)
-    private double calculerChiffreAffairesDuJour() {
-        double caTotal = 0.0;
-        LocalDate aujourdhui = LocalDate.now();
-        
-        // 1. Chiffre d'affaires des tickets (parking journalier)
-        try {
-            caTotal = statsService.obtenirChiffreAffairesDuJour();
-        } catch (Exception e) {
-            System.err.println("Erreur lors du calcul CA tickets: " + e.getMessage());
-        }
-        
-        // 2. Ajouter le montant des abonnements créés aujourd'hui
-        List<Abonne> abonnes = abonneService.listerTousAbonnes();
-        
-        if (abonnes != null) {
-            for (Abonne abonne : abonnes) {
-                if (abonne.getDateDebut() != null && abonne.getDateDebut().equals(aujourdhui)) {
-                    // Si l'abonnement a été créé aujourd'hui, ajouter son montant total
-                    caTotal += abonne.getMontantTotal();
-                }
-                
-                // 3. Ajouter le montant des renouvellements effectués aujourd'hui
-                // Vérifier si l'abonnement a été renouvelé aujourd'hui
-                // Pour cela, on vérifie si l'abonnement existait déjà et a eu une nouvelle date de fin aujourd'hui
-                // Note: Cette logique nécessite un historique. Pour simplifier, on peut:
-                // 1. Vérifier si l'abonnement a été modifié aujourd'hui et que la date de fin est après aujourd'hui
-                // OU
-                // 2. Ajouter un champ "dateRenouvellement" dans la classe Abonne (meilleure solution)
-                
-                // Solution simplifiée: si la date de fin est aujourd'hui ou plus tard et dateDebut n'est pas aujourd'hui
-                if (abonne.getDateDebut() != null && abonne.getDateFin() != null) {
-                    // Si l'abonnement a commencé avant aujourd'hui mais a une nouvelle période aujourd'hui
-                    // On considère ça comme un renouvellement
-                    if (!abonne.getDateDebut().equals(aujourdhui) && 
-                        abonne.getDateFin().isAfter(LocalDate.now().minusDays(1))) {
-                        
-                        // Calculer le montant payé pour la période de renouvellement
-                        // Pour simplifier, on prend le montant total de l'abonnement
-                        // Mais idéalement, on devrait calculer uniquement la période renouvelée
-                        caTotal += abonne.getMontantTotal();
-                    }
-                }
-            }
-        }
-        
-        return caTotal;
-    }
-    
     private JPanel createActivityPanel() {
         JPanel panel = new JPanel(new BorderLayout());
         panel.setBackground(COLOR_CARD);
@@ -243,14 +378,14 @@ public class DashboardFrame extends JInternalFrame {
         
         // Créer le modèle de table
         String[] columns = {"Heure", "Action", "Véhicule", "Détails", "Montant"};
-        DefaultTableModel model = new DefaultTableModel(columns, 0) {
+        activityModel = new DefaultTableModel(columns, 0) {
             @Override
             public boolean isCellEditable(int row, int column) {
                 return false;
             }
         };
         
-        JTable table = new JTable(model);
+        JTable table = new JTable(activityModel);
         table.setRowHeight(40);
         table.setFont(new Font("Segoe UI", Font.PLAIN, 13));
         table.setBackground(COLOR_CARD);
@@ -355,27 +490,6 @@ public class DashboardFrame extends JInternalFrame {
             }
         });
         
-        // Récupérer et trier les activités d'aujourd'hui
-        List<ActivityItem> activities = getTodaysActivities();
-        
-        // Trier par heure décroissante
-        activities.sort((a1, a2) -> a2.time.compareTo(a1.time));
-        
-        // Ajouter les activités à la table
-        for (ActivityItem activity : activities) {
-            model.addRow(new Object[]{
-                activity.time.format(TIME_FORMATTER),
-                activity.action,
-                activity.vehicle,
-                activity.details,
-                activity.montant
-            });
-        }
-        
-        if (model.getRowCount() == 0) {
-            model.addRow(new Object[]{"--:--", "Aucune activité", "aujourd'hui", "--", "--"});
-        }
-        
         // Définir des largeurs de colonnes optimales
         table.getColumnModel().getColumn(0).setPreferredWidth(100);  // Heure
         table.getColumnModel().getColumn(1).setPreferredWidth(120); // Action
@@ -391,10 +505,10 @@ public class DashboardFrame extends JInternalFrame {
         JPanel footerPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
         footerPanel.setBackground(COLOR_CARD);
         
-        JLabel countLabel = new JLabel(activities.size() + " activités enregistrées aujourd'hui");
-        countLabel.setFont(new Font("Segoe UI", Font.PLAIN, 12));
-        countLabel.setForeground(COLOR_TEXT_LIGHT);
-        footerPanel.add(countLabel);
+        activityCountLabel = new JLabel("Chargement des activités...");
+        activityCountLabel.setFont(new Font("Segoe UI", Font.PLAIN, 12));
+        activityCountLabel.setForeground(COLOR_TEXT_LIGHT);
+        footerPanel.add(activityCountLabel);
         
         panel.add(footerPanel, BorderLayout.SOUTH);
         panel.add(scrollPane, BorderLayout.CENTER);
@@ -404,13 +518,15 @@ public class DashboardFrame extends JInternalFrame {
     
     // Classe interne pour gérer les activités
     private class ActivityItem {
+        String cle;
         LocalDateTime time;
         String action;
         String vehicle;
         String details;
         String montant;
         
-        ActivityItem(LocalDateTime time, String action, String vehicle, String details, String montant) {
+        ActivityItem(String cle, LocalDateTime time, String action, String vehicle, String details, String montant) {
+            this.cle = cle;
             this.time = time;
             this.action = action;
             this.vehicle = vehicle;
@@ -419,110 +535,34 @@ public class DashboardFrame extends JInternalFrame {
         }
     }
     
-    // Méthode pour récupérer les activités d'aujourd'hui (tickets + abonnements + renouvellements)
-    private List<ActivityItem> getTodaysActivities() {
-        List<ActivityItem> activities = new ArrayList<>();
-        LocalDate aujourdhui = LocalDate.now();
-        
-        // 1. Récupérer les activités de parking (tickets)
-        List<Ticket> tickets = ticketService.listerTousTickets();
-        
-        if (tickets != null) {
-            for (Ticket ticket : tickets) {
-                // Ajouter l'entrée si elle est d'aujourd'hui
-                if (ticket.getEntree() != null && 
-                    ticket.getEntree().toLocalDate().equals(aujourdhui)) {
-                    
-                    String immat = ticket.getVehicule() != null ? 
-                        ticket.getVehicule().getImmatriculation() : "Inconnu";
-                    String place = ticket.getPlace() != null ? 
-                        ticket.getPlace().getNumero() : "Inconnu";
-                    
-                    activities.add(new ActivityItem(
-                        ticket.getEntree(),
-                        "ENTREE",
-                        immat,
-                        "Place: " + place,
-                        "--"
-                    ));
-                }
-                
-                // Ajouter la sortie si elle est d'aujourd'hui
-                if (ticket.getSortie() != null && 
-                    ticket.getSortie().toLocalDate().equals(aujourdhui)) {
-                    
-                    String immat = ticket.getVehicule() != null ? 
-                        ticket.getVehicule().getImmatriculation() : "Inconnu";
-                    String place = ticket.getPlace() != null ? 
-                        ticket.getPlace().getNumero() : "-";
-                    double montantTicket = ticket.getMontant();
-                    
-                    activities.add(new ActivityItem(
-                        ticket.getSortie(),
-                        "SORTIE",
-                        immat,
-                        "Place: " + place + " | Durée: " + ticketService.obtenirDureeStationnement(ticket),
-                        String.format("%.0f DH", montantTicket)
-                    ));
-                }
-            }
-        }
+    // Mettre en forme un événement du fil d'activité (exécuté hors EDT)
+    private ActivityItem versActivityItem(Activite activite) {
+        String immat = activite.getImmatriculation() != null ? activite.getImmatriculation() : "Inconnu";
+        String montant = activite.getMontant() != null ? String.format("%.0f DH", activite.getMontant()) : "--";
+        String details;
         
-        // 2. Récupérer les créations d'abonnements d'aujourd'hui
-        List<Abonne> abonnes = abonneService.listerTousAbonnes();
-        
-        if (abonnes != null) {
-            for (Abonne abonne : abonnes) {
-                // Vérifier si l'abonnement a été créé aujourd'hui
-                if (abonne.getDateDebut() != null && abonne.getDateDebut().equals(aujourdhui)) {
-                    String immat = abonne.getImmatriculation();
-                    double montantAbonne = abonne.getMontantTotal();
-                    int dureeMois = abonne.getDureeMois();
-                    
-                    String dayName = abonne.getDateDebut().getDayOfWeek()
-                    	    .getDisplayName(TextStyle.FULL, Locale.FRENCH);
-
-                    	activities.add(new ActivityItem(
-                    	    abonne.getDateDebut().atStartOfDay(), // Timestamp à minuit
-                    	    "ABONNEMENT",
-                    	    immat,
-                    	    "Nouvel abonnement " + dureeMois + " mois souscrit un " + dayName + 
-                    	    " (" + abonne.getDateDebut().format(DATE_FORMATTER) + " → " + 
-                    	    abonne.getDateFin().format(DATE_FORMATTER) + ")",
-                    	    String.format("%.0f DH", montantAbonne)
-                    	));
-                }
-                
-                // 3. Détecter le
-                if (abonne.getDateDebut() != null && abonne.getDateFin() != null) {
-                    // Si l'abonnement a commencé avant aujourd'hui mais finit aujourd'hui ou plus tard
-                    if (!abonne.getDateDebut().equals(aujourdhui) && 
-                        abonne.getDateFin().isAfter(LocalDate.now().minusDays(1))) {
-                        
-                        if (abonne.getDateFin().isAfter(LocalDate.now().minusDays(7))) {
-                            String immat = abonne.getImmatriculation();
-                            double montantRenouvellement = abonne.getMontantTotal();
-                            int dureeMois = abonne.getDureeMois();
-                            
-                            // Pour simuler l'heure, on utilisera l'heure actuelle
-                            LocalDateTime time = LocalDateTime.now();
-                            
-                            activities.add(new ActivityItem(
-                                time,
-                                "RENOUVELLEMENT",
-                                immat,
-                                "Renouvellement " + dureeMois + " mois (" + 
-                                abonne.getDateDebut().format(DATE_FORMATTER) + " → " + 
-                                abonne.getDateFin().format(DATE_FORMATTER) + ")",
-                                String.format("%.0f DH", montantRenouvellement)
-                            ));
-                        }
-                    }
-                }
-            }
+        switch (activite.getType()) {
+            case ActiviteDAO.ENTREE:
+                details = "Place: " + (activite.getPlaceNumero() != null ? activite.getPlaceNumero() : "Inconnu");
+                break;
+            case ActiviteDAO.SORTIE:
+                Ticket ticket = new Ticket();
+                ticket.setEntree(activite.getEntree());
+                ticket.setSortie(activite.getHorodatage());
+                details = "Place: " + (activite.getPlaceNumero() != null ? activite.getPlaceNumero() : "-") +
+                          " | Durée: " + ticketService.obtenirDureeStationnement(ticket);
+                break;
+            default:
+                Abonne abonne = new Abonne(activite.getSourceId(), 0, activite.getDateDebut(), activite.getDateFin());
+                String dayName = abonne.getDateDebut().getDayOfWeek()
+                    .getDisplayName(TextStyle.FULL, Locale.FRENCH);
+                details = "Nouvel abonnement " + abonne.getDureeMois() + " mois souscrit un " + dayName +
+                          " (" + abonne.getDateDebut().format(DATE_FORMATTER) + " → " +
+                          abonne.getDateFin().format(DATE_FORMATTER) + ")";
+                break;
         }
         
-        return activities;
+        return new ActivityItem(activite.getCle(), activite.getHorodatage(), activite.getType(), immat, details, montant);
     }
     
     private JPanel createStatCard(String title, String value, String subtitle, Color accentColor) {
@@ -547,6 +587,7 @@ public class DashboardFrame extends JInternalFrame {
         titleLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
         
         JLabel valueLabel = new JLabel(value);
+        valeursCartes.put(title, valueLabel);
         valueLabel.setFont(new Font("Segoe UI", Font.BOLD, 28));
         valueLabel.setForeground(COLOR_TEXT_DARK);
         valueLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
@@ -558,31 +599,8 @@ public class DashboardFrame extends JInternalFrame {
         return card;
     }
     
+    // Actualisation en place: les composants sont conservés, seules les valeurs changent
     private void refreshDashboard() {
-        Container parent = this.getParent();
-        if (parent instanceof JDesktopPane) {
-            JDesktopPane desktopPane = (JDesktopPane) parent;
-            
-            // Fermer le dashboard actuel
-            this.dispose();
-            
-            // Créer un nouveau dashboard
-            DashboardFrame newDashboard = new DashboardFrame();
-            desktopPane.add(newDashboard);
-            
-            // Centrer et afficher
-            Dimension desktopSize = desktopPane.getSize();
-            Dimension frameSize = newDashboard.getSize();
-            newDashboard.setLocation(
-                (desktopSize.width - frameSize.width) / 2,
-                (desktopSize.height - frameSize.height) / 2
-            );
-            newDashboard.setVisible(true);
-            try {
-                newDashboard.setSelected(true);
-            } catch (java.beans.PropertyVetoException e) {
-                e.printStackTrace();
-            }
-        }
+        chargerDonnees();
     }
 }
\ No newline at end of file
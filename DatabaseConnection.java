@@ -5,25 +5,76 @@ import java.sql.DriverManager;
 import java.sql.SQLException;
 
 public class DatabaseConnection {
-    private static final String URL = "jdbc:mysql://localhost:3306/gestion_parking";
-    private static final String USER = "root";
-    private static final String PASSWORD = ""; 
+    // Base cible (profil, URL, identifiants): voir ConfigurationBase
+    private static final ConfigurationBase CONFIG = ConfigurationBase.get();
+    private static final String URL = CONFIG.getUrl();
+    private static final String USER = CONFIG.getUtilisateur();
+    private static final String PASSWORD = CONFIG.getMotDePasse(); 
     private static final int MAX_RETRIES = 3;
     private static final long RETRY_DELAY_MS = 1000;
     
-    // Bloc static pour charger le driver
+    // Paramètres du pool (parking.pool.xxx, mêmes sources que la configuration de la base)
+    private static final int POOL_MIN = CONFIG.entier("parking.pool.min", 2);
+    private static final int POOL_MAX = CONFIG.entier("parking.pool.max", 10);
+    private static final long POOL_VALIDATION_MS = CONFIG.entierLong("parking.pool.validationApresInactiviteMs", 30_000L);
+    private static final long POOL_INACTIVITE_MAX_MS = CONFIG.entierLong("parking.pool.inactiviteMaxMs", 300_000L);
+    private static final long POOL_ATTENTE_MS = CONFIG.entierLong("parking.pool.attenteMs", 5_000L);
+    
+    private static volatile ConnectionPool pool;
+    
+    // Bloc static pour charger le driver du profil configuré
     static {
+        String driver = CONFIG.getDriver();
         try {
-            Class.forName("com.mysql.cj.jdbc.Driver");
-            System.out.println("Driver MySQL chargé avec succès.");
+            Class.forName(driver);
+            System.out.println("Driver " + driver + " chargé avec succès (profil " + CONFIG.getProfil() + ").");
         } catch (ClassNotFoundException e) {
-            System.err.println("ERREUR: Driver MySQL non trouvé!");
-            throw new RuntimeException("Driver MySQL requis non trouvé", e);
+            System.err.println("ERREUR: Driver " + driver + " non trouvé!");
+            throw new RuntimeException("Driver requis non trouvé: " + driver, e);
         }
+        
+        // Fermer proprement le pool à l'arrêt de la JVM
+        Runtime.getRuntime().addShutdownHook(new Thread(DatabaseConnection::shutdown, "pool-connexions-arret"));
     }
     
-    // Obtenir une connexion (version simplifiée et fiable)
+    // Obtenir une connexion du pool (close() la rend au pool), instrumentée si les métriques sont actives
     public static Connection getConnection() throws SQLException {
+        if (!MetriquesDAO.estActif()) {
+            return getPool().emprunter();
+        }
+        long debut = System.nanoTime();
+        Connection conn = getPool().emprunter();
+        return InstrumentationJdbc.envelopper(conn, System.nanoTime() - debut);
+    }
+    
+    // Pool partagé, créé au premier usage
+    public static ConnectionPool getPool() {
+        ConnectionPool p = pool;
+        if (p == null) {
+            synchronized (DatabaseConnection.class) {
+                p = pool;
+                if (p == null) {
+                    p = new ConnectionPool(DatabaseConnection::ouvrirConnexionPhysique,
+                        POOL_MIN, POOL_MAX, POOL_VALIDATION_MS, POOL_INACTIVITE_MAX_MS, POOL_ATTENTE_MS);
+                    p.prechauffer();
+                    pool = p;
+                    MetriquesDAO.getInstance().demarrerResumePeriodique();
+                }
+            }
+        }
+        return p;
+    }
+    
+    // Fermer le pool (arrêt de l'application)
+    public static synchronized void shutdown() {
+        if (pool != null) {
+            pool.fermer();
+            pool = null;
+        }
+    }
+    
+    // Ouvrir une connexion physique avec tentatives (utilisé par le pool)
+    private static Connection ouvrirConnexionPhysique() throws SQLException {
         SQLException lastException = null;
         
         for (int i = 0; i < MAX_RETRIES; i++) {
@@ -121,6 +172,7 @@ public class DatabaseConnection {
                 System.out.println("✓ Connexion à la base de données réussie!");
                 System.out.println("  URL: " + URL);
                 System.out.println("  Utilisateur: " + USER);
+                System.out.println("  Pool: " + POOL_MIN + " à " + POOL_MAX + " connexions");
             }
         } catch (SQLException e) {
             System.err.println("✗ Échec de connexion à la base de données!");
@@ -0,0 +1,49 @@
+package com.gestion.parking.dao;
+
+import java.time.LocalDateTime;
+
+// Critères optionnels de recherche des tickets (null = pas de filtre)
+public class FiltreTickets {
+    public enum Statut { EN_COURS, TERMINE }
+    
+    private Statut statut;
+    private LocalDateTime entreeDebut;  // inclus
+    private LocalDateTime entreeFin;    // exclu
+    private String immatriculation;
+    
+    public FiltreTickets() {}
+    
+    // Getters
+    public Statut getStatut() {
+        return statut;
+    }
+    
+    public LocalDateTime getEntreeDebut() {
+        return entreeDebut;
+    }
+    
+    public LocalDateTime getEntreeFin() {
+        return entreeFin;
+    }
+    
+    public String getImmatriculation() {
+        return immatriculation;
+    }
+    
+    // Setters
+    public void setStatut(Statut statut) {
+        this.statut = statut;
+    }
+    
+    public void setEntreeDebut(LocalDateTime entreeDebut) {
+        this.entreeDebut = entreeDebut;
+    }
+    
+    public void setEntreeFin(LocalDateTime entreeFin) {
+        this.entreeFin = entreeFin;
+    }
+    
+    public void setImmatriculation(String immatriculation) {
+        this.immatriculation = immatriculation;
+    }
+}
@@ -0,0 +1,96 @@
+package com.gestion.parking.dao;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Histogramme de latences sans verrou, en microsecondes: 4 intervalles par puissance de 2
+// (erreur relative de 25 % au plus sur les percentiles), de 1 µs à plusieurs jours.
+public final class HistogrammeLatence {
+    private static final int SOUS_INTERVALLES = 4;
+    private static final int NOMBRE_INTERVALLES = SOUS_INTERVALLES + 40 * SOUS_INTERVALLES;
+
+    private final AtomicLongArray compteurs = new AtomicLongArray(NOMBRE_INTERVALLES);
+    private final LongAdder nombre = new LongAdder();
+    private final LongAdder totalMicros = new LongAdder();
+    private final AtomicLong maxMicros = new AtomicLong();
+
+    public void enregistrer(long nanos) {
+        long micros = Math.max(0L, nanos / 1000);
+        compteurs.incrementAndGet(indice(micros));
+        nombre.increment();
+        totalMicros.add(micros);
+        if (micros > maxMicros.get()) {
+            maxMicros.accumulateAndGet(micros, Math::max);
+        }
+    }
+
+    public long getNombre() {
+        return nombre.sum();
+    }
+
+    public double getTotalMs() {
+        return totalMicros.sum() / 1000.0;
+    }
+
+    public double getMoyenneMs() {
+        long n = nombre.sum();
+        return n == 0 ? 0.0 : totalMicros.sum() / 1000.0 / n;
+    }
+
+    public double getMaxMs() {
+        return maxMicros.get() / 1000.0;
+    }
+
+    // Percentile (p en [0, 1]) en millisecondes: borne haute de l'intervalle qui le contient
+    public double percentileMs(double p) {
+        long[] copie = new long[NOMBRE_INTERVALLES];
+        long total = 0;
+        for (int i = 0; i < NOMBRE_INTERVALLES; i++) {
+            copie[i] = compteurs.get(i);
+            total += copie[i];
+        }
+        if (total == 0) {
+            return 0.0;
+        }
+
+        long rang = Math.max(1L, (long) Math.ceil(p * total));
+        long cumul = 0;
+        for (int i = 0; i < NOMBRE_INTERVALLES; i++) {
+            cumul += copie[i];
+            if (cumul >= rang) {
+                return Math.min(borneHaute(i), maxMicros.get()) / 1000.0;
+            }
+        }
+        return maxMicros.get() / 1000.0;
+    }
+
+    public void reinitialiser() {
+        for (int i = 0; i < NOMBRE_INTERVALLES; i++) {
+            compteurs.set(i, 0);
+        }
+        nombre.reset();
+        totalMicros.reset();
+        maxMicros.set(0);
+    }
+
+    // 0..3 µs: un intervalle par valeur; au-delà: puissance de 2 puis 2 bits suivants
+    static int indice(long micros) {
+        if (micros < SOUS_INTERVALLES) {
+            return (int) micros;
+        }
+        int exposant = 63 - Long.numberOfLeadingZeros(micros);
+        int sous = (int) ((micros >>> (exposant - 2)) & (SOUS_INTERVALLES - 1));
+        int indice = SOUS_INTERVALLES + (exposant - 2) * SOUS_INTERVALLES + sous;
+        return Math.min(indice, NOMBRE_INTERVALLES - 1);
+    }
+
+    static long borneHaute(int indice) {
+        if (indice < SOUS_INTERVALLES) {
+            return indice;
+        }
+        int exposant = (indice - SOUS_INTERVALLES) / SOUS_INTERVALLES + 2;
+        int sous = (indice - SOUS_INTERVALLES) % SOUS_INTERVALLES;
+        return ((long) (SOUS_INTERVALLES + sous + 1) << (exposant - 2)) - 1;
+    }
+}
@@ -0,0 +1,78 @@
+package com.gestion.parking.dao;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+// Vérification par EXPLAIN que les requêtes à intervalles de dates et les recherches fréquentes
+// peuvent utiliser un index. Les index eux-mêmes sont créés par les migrations (db/migration/).
+public class IndexSchema {
+
+    private static final class VerificationPlan {
+        final String libelle;
+        // Requête représentative dont le plan doit pouvoir utiliser un index
+        final String requete;
+
+        VerificationPlan(String libelle, String requete) {
+            this.libelle = libelle;
+            this.requete = requete;
+        }
+    }
+
+    private static final List<VerificationPlan> VERIFICATIONS = List.of(
+        new VerificationPlan("Ticket(entree)",
+            "SELECT id FROM Ticket WHERE entree >= CURDATE() AND entree < CURDATE() + INTERVAL 1 DAY"),
+        new VerificationPlan("Ticket(sortie)",
+            "SELECT id FROM Ticket WHERE sortie >= CURDATE() AND sortie < CURDATE() + INTERVAL 1 DAY"),
+        new VerificationPlan("Ticket(vehicule_id, sortie)",
+            "SELECT id FROM Ticket WHERE vehicule_id = 0 AND sortie IS NULL"),
+        new VerificationPlan("Paiement(date)",
+            "SELECT id FROM Paiement WHERE `date` >= CURDATE() AND `date` < CURDATE() + INTERVAL 1 DAY"),
+        new VerificationPlan("Paiement(ticket_id)",
+            "SELECT id FROM Paiement WHERE ticket_id = 0"),
+        new VerificationPlan("Place(statut)",
+            "SELECT id FROM Place WHERE statut = 'LIBRE'"),
+        new VerificationPlan("Abonne(dateDebut)",
+            "SELECT id FROM Abonne WHERE dateDebut >= CURDATE() AND dateDebut < CURDATE() + INTERVAL 1 DAY")
+    );
+
+    // Vérifier par EXPLAIN que chaque requête représentative peut utiliser un index;
+    // retourne la liste des anomalies (vide si tout est correct)
+    public List<String> verifierPlans(Connection conn) throws SQLException {
+        List<String> anomalies = new ArrayList<>();
+
+        for (VerificationPlan verification : VERIFICATIONS) {
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery("EXPLAIN " + verification.requete)) {
+
+                if (!rs.next()) {
+                    anomalies.add(verification.libelle + ": aucun plan retourné");
+                    continue;
+                }
+                String cle = rs.getString("key");
+                String clesPossibles = rs.getString("possible_keys");
+                String type = rs.getString("type");
+
+                // Sur une petite table l'optimiseur peut préférer un parcours complet:
+                // l'index doit au moins figurer parmi les clés possibles
+                if (cle == null && clesPossibles == null) {
+                    anomalies.add(verification.libelle + ": aucun index utilisable (type=" + type + ")");
+                } else if (cle == null) {
+                    System.out.println("Plan " + verification.libelle + ": index disponible (" + clesPossibles
+                        + ") mais non retenu, type=" + type);
+                }
+            }
+        }
+        return anomalies;
+    }
+
+    // Vérification manuelle
+    public static void main(String[] args) throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            List<String> anomalies = new IndexSchema().verifierPlans(conn);
+            System.out.println(anomalies.isEmpty() ? "Plans vérifiés: OK" : String.join("\n", anomalies));
+        } finally {
+            DatabaseConnection.shutdown();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.gestion.parking.service;
+
+import java.time.LocalDateTime;
+
+// Instantané immuable des indicateurs du tableau de bord, lus en une seule requête
+public final class IndicateursDashboard {
+    private final int totalPlaces;
+    private final int placesOccupees;
+    private final int placesLibres;
+    private final int abonnesValides;
+    private final int ticketsEnCours;
+    private final double chiffreAffairesTicketsJour;
+    private final double chiffreAffairesAbonnementsJour;
+    private final LocalDateTime dateMesure;
+
+    public IndicateursDashboard(int totalPlaces, int placesOccupees, int placesLibres, int abonnesValides,
+                                int ticketsEnCours, double chiffreAffairesTicketsJour,
+                                double chiffreAffairesAbonnementsJour, LocalDateTime dateMesure) {
+        this.totalPlaces = totalPlaces;
+        this.placesOccupees = placesOccupees;
+        this.placesLibres = placesLibres;
+        this.abonnesValides = abonnesValides;
+        this.ticketsEnCours = ticketsEnCours;
+        this.chiffreAffairesTicketsJour = chiffreAffairesTicketsJour;
+        this.chiffreAffairesAbonnementsJour = chiffreAffairesAbonnementsJour;
+        this.dateMesure = dateMesure;
+    }
+
+    public int getTotalPlaces() {
+        return totalPlaces;
+    }
+
+    public int getPlacesOccupees() {
+        return placesOccupees;
+    }
+
+    public int getPlacesLibres() {
+        return placesLibres;
+    }
+
+    // Même calcul que PlaceService.calculerTauxOccupation, sans requête supplémentaire
+    public double getTauxOccupation() {
+        if (totalPlaces == 0) {
+            return 0.0;
+        }
+        return (double) placesOccupees / totalPlaces * 100.0;
+    }
+
+    public int getAbonnesValides() {
+        return abonnesValides;
+    }
+
+    public int getTicketsEnCours() {
+        return ticketsEnCours;
+    }
+
+    public double getChiffreAffairesTicketsJour() {
+        return chiffreAffairesTicketsJour;
+    }
+
+    public double getChiffreAffairesAbonnementsJour() {
+        return chiffreAffairesAbonnementsJour;
+    }
+
+    // Chiffre d'affaires du jour: tickets clôturés + abonnements souscrits aujourd'hui
+    public double getChiffreAffairesJour() {
+        return chiffreAffairesTicketsJour + chiffreAffairesAbonnementsJour;
+    }
+
+    public LocalDateTime getDateMesure() {
+        return dateMesure;
+    }
+
+    @Override
+    public String toString() {
+        return "IndicateursDashboard{" +
+                "totalPlaces=" + totalPlaces +
+                ", placesOccupees=" + placesOccupees +
+                ", placesLibres=" + placesLibres +
+                ", abonnesValides=" + abonnesValides +
+                ", ticketsEnCours=" + ticketsEnCours +
+                ", chiffreAffairesTicketsJour=" + chiffreAffairesTicketsJour +
+                ", chiffreAffairesAbonnementsJour=" + chiffreAffairesAbonnementsJour +
+                ", dateMesure=" + dateMesure +
+                '}';
+    }
+}
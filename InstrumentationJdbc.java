@@ -0,0 +1,255 @@
+package com.gestion.parking.dao;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Enveloppes JDBC qui alimentent MetriquesDAO. Chaque instruction est attribuée à la méthode qui l'a préparée
+// (premier appelant hors JDBC et hors de cette couche, ex: "TicketDAO.findAll"); l'obtention de la connexion
+// est attribuée à la première instruction préparée sur la connexion (à défaut, à la méthode qui la ferme).
+// La pile n'est parcourue qu'à la première préparation d'un texte SQL: l'attribution est ensuite reprise
+// du cache (un même texte préparé par deux méthodes est compté sous la première).
+// Mesuré: durée des execute*, lignes parcourues par ResultSet.next() (ResultatMesure) ou modifiées, erreurs SQL.
+// Au-delà du seuil des instructions lentes, le texte SQL, les paramètres liés et la méthode appelante
+// hors de la couche d'accès aux données sont transmis à RequetesLentes.
+final class InstrumentationJdbc {
+
+    // Classes d'infrastructure ignorées pour l'attribution
+    private static final Set<String> INFRASTRUCTURE = Set.of(
+        InstrumentationJdbc.class.getName(),
+        DatabaseConnection.class.getName(),
+        ConnectionPool.class.getName()
+    );
+
+    private static final StackWalker PILE = StackWalker.getInstance();
+    private static final String PAQUETAGE_DAO = InstrumentationJdbc.class.getPackageName() + ".";
+
+    // Texte SQL -> méthode attribuée; borné pour les requêtes construites dynamiquement (au-delà, pile parcourue)
+    private static final int ATTRIBUTIONS_MAX = 1024;
+    private static final Map<String, MetriquesDAO.Methode> ATTRIBUTIONS = new ConcurrentHashMap<>();
+
+    private InstrumentationJdbc() {}
+
+    // Envelopper une connexion empruntée au pool; acquisitionNanos = attente + validation éventuelle
+    static Connection envelopper(Connection conn, long acquisitionNanos) {
+        return (Connection) Proxy.newProxyInstance(
+            Connection.class.getClassLoader(), new Class<?>[]{Connection.class}, new Connexion(conn, acquisitionNanos));
+    }
+
+    // Connexion empruntée: temps d'obtention en attente d'attribution jusqu'à la première instruction
+    private static final class Connexion implements InvocationHandler {
+        private final Connection conn;
+        private final MetriquesDAO metriques = MetriquesDAO.getInstance();
+        private final long acquisitionNanos;
+        private boolean acquisitionAttribuee = false;
+
+        Connexion(Connection conn, long acquisitionNanos) {
+            this.conn = conn;
+            this.acquisitionNanos = acquisitionNanos;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String nom = method.getName();
+            if ("equals".equals(nom) && method.getParameterCount() == 1) {
+                return proxy == args[0];
+            }
+            if ("hashCode".equals(nom) && method.getParameterCount() == 0) {
+                return System.identityHashCode(proxy);
+            }
+            if ("close".equals(nom) && !acquisitionAttribuee) {
+                attribuerAcquisition(metriques.methode(appelant()));
+            }
+
+            Object resultat = invoquer(conn, method, args);
+            if (resultat instanceof Statement) {
+                // prepareStatement(sql, ...) / prepareCall(sql, ...): texte connu dès la préparation
+                String sql = nom.startsWith("prepare") && args != null && args[0] instanceof String
+                           ? (String) args[0] : null;
+                MetriquesDAO.Methode methode = attribuer(metriques, sql);
+                if (!acquisitionAttribuee) {
+                    attribuerAcquisition(methode);
+                }
+                return envelopperInstruction((Statement) resultat, sql, methode);
+            }
+            return resultat;
+        }
+
+        private void attribuerAcquisition(MetriquesDAO.Methode methode) {
+            methode.acquisition(acquisitionNanos);
+            acquisitionAttribuee = true;
+        }
+    }
+
+    // createStatement(): texte inconnu à la création, pile parcourue (migrations et données de démonstration)
+    private static MetriquesDAO.Methode attribuer(MetriquesDAO metriques, String sql) {
+        if (sql == null) {
+            return metriques.methode(appelant());
+        }
+        MetriquesDAO.Methode methode = ATTRIBUTIONS.get(sql);
+        if (methode == null) {
+            methode = metriques.methode(appelant());
+            if (ATTRIBUTIONS.size() < ATTRIBUTIONS_MAX) {
+                ATTRIBUTIONS.putIfAbsent(sql, methode);
+            }
+        }
+        return methode;
+    }
+
+    private static Statement envelopperInstruction(Statement stmt, String sql, MetriquesDAO.Methode methode) {
+        Class<?> type = stmt instanceof CallableStatement ? CallableStatement.class
+                      : stmt instanceof PreparedStatement ? PreparedStatement.class
+                      : Statement.class;
+        return (Statement) Proxy.newProxyInstance(
+            Statement.class.getClassLoader(), new Class<?>[]{type}, new Instruction(stmt, sql, methode));
+    }
+
+    // État d'une instruction: texte SQL et derniers paramètres liés (utilisés seulement si elle est lente)
+    private static final class Instruction implements InvocationHandler {
+        private final Statement stmt;
+        private final MetriquesDAO.Methode methode;
+        private String sql;
+        private Object[] parametres = new Object[8];
+        private int nombreParametres = 0;
+        private int lots = 0;
+
+        Instruction(Statement stmt, String sql, MetriquesDAO.Methode methode) {
+            this.stmt = stmt;
+            this.sql = sql;
+            this.methode = methode;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String nom = method.getName();
+            if (nom.startsWith("execute")) {
+                if (args != null && args.length > 0 && args[0] instanceof String) {
+                    sql = (String) args[0];
+                }
+                return executer(method, args);
+            }
+            if ("getResultSet".equals(nom)) {
+                return envelopperResultat((ResultSet) invoquer(stmt, method, args), methode);
+            }
+
+            // setString(1, ...), setNull(2, Types.X), ...: paramètres de PreparedStatement
+            if (nom.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer
+                    && method.getDeclaringClass() != Statement.class) {
+                lier((Integer) args[0], "setNull".equals(nom) ? null : args[1]);
+            } else if ("clearParameters".equals(nom)) {
+                nombreParametres = 0;
+            } else if ("addBatch".equals(nom)) {
+                lots++;
+                if (args != null && args.length > 0 && args[0] instanceof String) {
+                    sql = (String) args[0];
+                }
+            } else if ("clearBatch".equals(nom)) {
+                lots = 0;
+            }
+            return invoquer(stmt, method, args);
+        }
+
+        private Object executer(Method method, Object[] args) throws Throwable {
+            long debut = System.nanoTime();
+            boolean succes = false;
+            try {
+                Object resultat = invoquer(stmt, method, args);
+                succes = true;
+                compterLignesModifiees(resultat, methode);
+                return resultat instanceof ResultSet ? envelopperResultat((ResultSet) resultat, methode) : resultat;
+            } finally {
+                long duree = System.nanoTime() - debut;
+                if (methode.execution(duree, succes)) {
+                    RequetesLentes.getInstance().signaler(duree, methode.getNom(), appelantHorsDao(), sql,
+                        parametres, nombreParametres, lots, succes);
+                }
+                if ("executeBatch".equals(method.getName()) || "executeLargeBatch".equals(method.getName())) {
+                    lots = 0;
+                }
+            }
+        }
+
+        private void lier(int indice, Object valeur) {
+            if (indice < 1) {
+                return;
+            }
+            if (indice > parametres.length) {
+                parametres = Arrays.copyOf(parametres, Math.max(indice, parametres.length * 2));
+            }
+            parametres[indice - 1] = valeur;
+            nombreParametres = Math.max(nombreParametres, indice);
+        }
+    }
+
+    private static ResultSet envelopperResultat(ResultSet rs, MetriquesDAO.Methode methode) {
+        return rs == null ? null : new ResultatMesure(rs, methode);
+    }
+
+    // executeUpdate / executeLargeUpdate / executeBatch: nombre de lignes modifiées
+    private static void compterLignesModifiees(Object resultat, MetriquesDAO.Methode methode) {
+        if (resultat instanceof Integer || resultat instanceof Long) {
+            methode.lignes(((Number) resultat).longValue());
+        } else if (resultat instanceof int[]) {
+            for (int n : (int[]) resultat) {
+                methode.lignes(n);
+            }
+        } else if (resultat instanceof long[]) {
+            for (long n : (long[]) resultat) {
+                methode.lignes(n);
+            }
+        }
+    }
+
+    private static Object invoquer(Object cible, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(cible, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    // "Classe.methode" du premier appelant applicatif
+    static String appelant() {
+        return PILE.walk(frames -> frames
+            .filter(f -> !estInfrastructure(f.getClassName()))
+            .findFirst()
+            .map(f -> nomCourt(f.getClassName()) + "." + f.getMethodName())
+            .orElse("inconnu"));
+    }
+
+    // "Classe.methode" du premier appelant hors de la couche d'accès aux données (service, écran)
+    static String appelantHorsDao() {
+        return PILE.walk(frames -> frames
+            .filter(f -> !estInfrastructure(f.getClassName()) && !f.getClassName().startsWith(PAQUETAGE_DAO))
+            .findFirst()
+            .map(f -> nomCourt(f.getClassName()) + "." + f.getMethodName())
+            .orElse("-"));
+    }
+
+    // Classes internes (Connexion, Instruction) rattachées à leur classe englobante
+    private static boolean estInfrastructure(String classe) {
+        int dollar = classe.indexOf('$');
+        return INFRASTRUCTURE.contains(dollar > 0 ? classe.substring(0, dollar) : classe)
+            || classe.startsWith("java.") || classe.startsWith("javax.") || classe.startsWith("jdk.")
+            || classe.startsWith("sun.") || classe.startsWith("com.sun.")
+            || classe.startsWith("com.mysql.") || classe.startsWith("org.h2.")
+            || classe.contains("$Proxy");
+    }
+
+    // Nom simple, classes internes et lambdas rattachées à leur classe englobante
+    private static String nomCourt(String classe) {
+        String simple = classe.substring(classe.lastIndexOf('.') + 1);
+        int dollar = simple.indexOf('$');
+        return dollar > 0 ? simple.substring(0, dollar) : simple;
+    }
+}
@@ -4,7 +4,10 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
 import javax.swing.border.EmptyBorder;
+import com.gestion.parking.dao.MigrationRunner;
+import com.gestion.parking.service.AbonnementIndex;
 import com.gestion.parking.service.PlaceService;
+import com.gestion.parking.service.ServeurMetriques;
 
 public class MainFrame extends JFrame {
     private JDesktopPane desktopPane;
@@ -305,6 +308,23 @@ public class MainFrame extends JFrame {
     }
     
     public static void main(String[] args) {
+        // Mettre le schéma à jour avant d'ouvrir l'interface; arrêt immédiat en cas de dérive
+        try {
+            MigrationRunner.migrerAuDemarrage();
+        } catch (java.sql.SQLException | IllegalStateException e) {
+            System.err.println("Migration du schéma impossible: " + e.getMessage());
+            JOptionPane.showMessageDialog(null, 
+                "Le schéma de la base de données ne peut pas être mis à jour :\n" + e.getMessage(),
+                "Erreur de démarrage", JOptionPane.ERROR_MESSAGE);
+            System.exit(1);
+        }
+        
+        // Index des abonnements chargé avant la première entrée (rechargé ensuite chaque nuit)
+        AbonnementIndex.getInstance().assurerInitialise();
+        
+        // Point d'accès des métriques (si parking.metriques.port est configuré), hors de l'EDT
+        ServeurMetriques.demarrerSiConfigure();
+        
         SwingUtilities.invokeLater(() -> {
             try {
                 UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
@@ -0,0 +1,91 @@
+package com.gestion.parking.service;
+
+import com.gestion.parking.dao.HistogrammeLatence;
+import java.util.concurrent.atomic.LongAdder;
+
+// Compteurs des bornes d'entrée et de sortie, alimentés par TicketService: passages acceptés ou refusés,
+// temps de traitement complet (transaction comprise) et débit sur la dernière minute.
+public class MetriquesBorne {
+
+    private static final MetriquesBorne INSTANCE = new MetriquesBorne();
+
+    public enum Operation { ENTREE, SORTIE }
+
+    // Compteurs d'une opération
+    public static final class Compteurs {
+        private final LongAdder acceptees = new LongAdder();
+        private final LongAdder refusees = new LongAdder();
+        private final HistogrammeLatence latence = new HistogrammeLatence();
+        private final DebitMinute debit = new DebitMinute();
+
+        void enregistrer(long nanos, boolean acceptee) {
+            if (acceptee) {
+                acceptees.increment();
+                debit.ajouter(System.currentTimeMillis() / 1000);
+            } else {
+                refusees.increment();
+            }
+            latence.enregistrer(nanos);
+        }
+
+        public long getAcceptees() {
+            return acceptees.sum();
+        }
+
+        public long getRefusees() {
+            return refusees.sum();
+        }
+
+        public HistogrammeLatence getLatence() {
+            return latence;
+        }
+
+        // Passages acceptés au cours des 60 dernières secondes
+        public long getDerniereMinute() {
+            return debit.total(System.currentTimeMillis() / 1000);
+        }
+    }
+
+    // Fenêtre glissante de 60 intervalles d'une seconde (quelques passages par seconde au plus)
+    private static final class DebitMinute {
+        private static final int SECONDES = 60;
+        private final long[] compteurs = new long[SECONDES];
+        private final long[] secondes = new long[SECONDES];
+
+        synchronized void ajouter(long seconde) {
+            int i = (int) (seconde % SECONDES);
+            if (secondes[i] != seconde) {
+                secondes[i] = seconde;
+                compteurs[i] = 0;
+            }
+            compteurs[i]++;
+        }
+
+        synchronized long total(long maintenant) {
+            long total = 0;
+            for (int i = 0; i < SECONDES; i++) {
+                if (maintenant - secondes[i] < SECONDES) {
+                    total += compteurs[i];
+                }
+            }
+            return total;
+        }
+    }
+
+    private final Compteurs entrees = new Compteurs();
+    private final Compteurs sorties = new Compteurs();
+
+    private MetriquesBorne() {}
+
+    public static MetriquesBorne getInstance() {
+        return INSTANCE;
+    }
+
+    public void enregistrer(Operation operation, long nanos, boolean acceptee) {
+        getCompteurs(operation).enregistrer(nanos, acceptee);
+    }
+
+    public Compteurs getCompteurs(Operation operation) {
+        return operation == Operation.ENTREE ? entrees : sorties;
+    }
+}
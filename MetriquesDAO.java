@@ -0,0 +1,269 @@
+package com.gestion.parking.dao;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Métriques par méthode d'accès aux données (ex: "TicketDAO.findAll"): exécutions, erreurs, lignes lues ou
+// modifiées, histogramme des temps d'exécution et du temps d'obtention de la connexion.
+// Alimentées sans verrou par InstrumentationJdbc; un résumé périodique est écrit sur la sortie standard.
+public final class MetriquesDAO {
+    private static final ConfigurationBase CONFIG = ConfigurationBase.get();
+    private static final boolean ACTIVES = Boolean.parseBoolean(CONFIG.valeur("parking.metriques.actives", "true"));
+    private static final long RESUME_SEC = CONFIG.entierLong("parking.metriques.resumeSec", 300L);
+    private static final int RESUME_LIGNES = CONFIG.entier("parking.metriques.resumeLignes", 15);
+    // Au-delà de ce seuil, une exécution est comptée comme lente
+    private static final long SEUIL_LENTE_NANOS = CONFIG.entierLong("parking.metriques.seuilLenteMs", 250L) * 1_000_000L;
+
+    private static final MetriquesDAO INSTANCE = new MetriquesDAO();
+
+    // Compteurs d'une méthode
+    public static final class Methode {
+        private final String nom;
+        private final LongAdder executions = new LongAdder();
+        private final LongAdder erreurs = new LongAdder();
+        private final LongAdder lignes = new LongAdder();
+        private final LongAdder lentes = new LongAdder();
+        private final HistogrammeLatence execution = new HistogrammeLatence();
+        private final HistogrammeLatence acquisition = new HistogrammeLatence();
+
+        Methode(String nom) {
+            this.nom = nom;
+        }
+
+        String getNom() {
+            return nom;
+        }
+
+        // Retourne vrai si l'exécution dépasse le seuil des instructions lentes
+        boolean execution(long nanos, boolean succes) {
+            executions.increment();
+            if (!succes) {
+                erreurs.increment();
+            }
+            execution.enregistrer(nanos);
+            if (nanos >= SEUIL_LENTE_NANOS) {
+                lentes.increment();
+                return true;
+            }
+            return false;
+        }
+
+        void lignes(long nombre) {
+            if (nombre > 0) {
+                lignes.add(nombre);
+            }
+        }
+
+        void acquisition(long nanos) {
+            acquisition.enregistrer(nanos);
+        }
+
+        Instantane instantane() {
+            return new Instantane(nom, executions.sum(), erreurs.sum(), lignes.sum(), lentes.sum(),
+                execution.getTotalMs(), execution.getMoyenneMs(), execution.percentileMs(0.5),
+                execution.percentileMs(0.95), execution.percentileMs(0.99), execution.getMaxMs(),
+                acquisition.getNombre(), acquisition.percentileMs(0.5), acquisition.percentileMs(0.99),
+                acquisition.getMaxMs());
+        }
+
+        void reinitialiser() {
+            executions.reset();
+            erreurs.reset();
+            lignes.reset();
+            lentes.reset();
+            execution.reinitialiser();
+            acquisition.reinitialiser();
+        }
+    }
+
+    // Valeurs d'une méthode à un instant donné (durées en millisecondes)
+    public static final class Instantane {
+        private final String methode;
+        private final long executions;
+        private final long erreurs;
+        private final long lignes;
+        private final long lentes;
+        private final double totalMs;
+        private final double moyenneMs;
+        private final double p50Ms;
+        private final double p95Ms;
+        private final double p99Ms;
+        private final double maxMs;
+        private final long acquisitions;
+        private final double acquisitionP50Ms;
+        private final double acquisitionP99Ms;
+        private final double acquisitionMaxMs;
+
+        Instantane(String methode, long executions, long erreurs, long lignes, long lentes, double totalMs, double moyenneMs,
+                   double p50Ms, double p95Ms, double p99Ms, double maxMs, long acquisitions,
+                   double acquisitionP50Ms, double acquisitionP99Ms, double acquisitionMaxMs) {
+            this.methode = methode;
+            this.executions = executions;
+            this.erreurs = erreurs;
+            this.lignes = lignes;
+            this.lentes = lentes;
+            this.totalMs = totalMs;
+            this.moyenneMs = moyenneMs;
+            this.p50Ms = p50Ms;
+            this.p95Ms = p95Ms;
+            this.p99Ms = p99Ms;
+            this.maxMs = maxMs;
+            this.acquisitions = acquisitions;
+            this.acquisitionP50Ms = acquisitionP50Ms;
+            this.acquisitionP99Ms = acquisitionP99Ms;
+            this.acquisitionMaxMs = acquisitionMaxMs;
+        }
+
+        public String getMethode() {
+            return methode;
+        }
+
+        public long getExecutions() {
+            return executions;
+        }
+
+        public long getErreurs() {
+            return erreurs;
+        }
+
+        public long getLignes() {
+            return lignes;
+        }
+
+        public long getLentes() {
+            return lentes;
+        }
+
+        public double getTotalMs() {
+            return totalMs;
+        }
+
+        public double getMoyenneMs() {
+            return moyenneMs;
+        }
+
+        public double getP50Ms() {
+            return p50Ms;
+        }
+
+        public double getP95Ms() {
+            return p95Ms;
+        }
+
+        public double getP99Ms() {
+            return p99Ms;
+        }
+
+        public double getMaxMs() {
+            return maxMs;
+        }
+
+        public long getAcquisitions() {
+            return acquisitions;
+        }
+
+        public double getAcquisitionP50Ms() {
+            return acquisitionP50Ms;
+        }
+
+        public double getAcquisitionP99Ms() {
+            return acquisitionP99Ms;
+        }
+
+        public double getAcquisitionMaxMs() {
+            return acquisitionMaxMs;
+        }
+    }
+
+    private final Map<String, Methode> methodes = new ConcurrentHashMap<>();
+    private ScheduledExecutorService resumeur;
+    private long executionsAuDernierResume = 0;
+
+    private MetriquesDAO() {}
+
+    public static MetriquesDAO getInstance() {
+        return INSTANCE;
+    }
+
+    public static boolean estActif() {
+        return ACTIVES;
+    }
+
+    public static long getSeuilLenteMs() {
+        return SEUIL_LENTE_NANOS / 1_000_000L;
+    }
+
+    Methode methode(String nom) {
+        Methode m = methodes.get(nom);
+        return m != null ? m : methodes.computeIfAbsent(nom, Methode::new);
+    }
+
+    // Toutes les méthodes observées, la plus coûteuse (temps cumulé) d'abord
+    public List<Instantane> instantane() {
+        List<Instantane> resultat = new ArrayList<>();
+        for (Methode m : methodes.values()) {
+            resultat.add(m.instantane());
+        }
+        resultat.sort(Comparator.comparingDouble(Instantane::getTotalMs).reversed());
+        return Collections.unmodifiableList(resultat);
+    }
+
+    public void reinitialiser() {
+        for (Methode m : methodes.values()) {
+            m.reinitialiser();
+        }
+    }
+
+    // Résumé périodique (parking.metriques.resumeSec, 0 pour désactiver), démarré au premier usage du pool
+    synchronized void demarrerResumePeriodique() {
+        if (resumeur != null || !ACTIVES || RESUME_SEC <= 0) {
+            return;
+        }
+        resumeur = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "metriques-dao-resume");
+            t.setDaemon(true);
+            return t;
+        });
+        resumeur.scheduleWithFixedDelay(this::ecrireResume, RESUME_SEC, RESUME_SEC, TimeUnit.SECONDS);
+    }
+
+    private void ecrireResume() {
+        List<Instantane> instantane = instantane();
+        long executions = 0;
+        for (Instantane i : instantane) {
+            executions += i.getExecutions();
+        }
+        // Rien de nouveau depuis le dernier résumé
+        if (executions == executionsAuDernierResume) {
+            return;
+        }
+        executionsAuDernierResume = executions;
+        System.out.println(resume(instantane, RESUME_LIGNES));
+    }
+
+    // Tableau texte des n méthodes les plus coûteuses
+    public static String resume(List<Instantane> instantane, int lignes) {
+        StringBuilder sb = new StringBuilder("Métriques d'accès aux données (cumul depuis le démarrage):\n");
+        sb.append(String.format(Locale.ROOT, "  %-42s %9s %6s %7s %10s %10s %8s %8s %8s %8s %9s%n",
+            "méthode", "exéc.", "err.", "lentes", "lignes", "total ms", "p50", "p95", "p99", "max", "acq. p99"));
+        int n = 0;
+        for (Instantane i : instantane) {
+            if (n++ >= lignes) {
+                break;
+            }
+            sb.append(String.format(Locale.ROOT, "  %-42s %9d %6d %7d %10d %10.1f %8.2f %8.2f %8.2f %8.2f %9.2f%n",
+                i.getMethode(), i.getExecutions(), i.getErreurs(), i.getLentes(), i.getLignes(), i.getTotalMs(),
+                i.getP50Ms(), i.getP95Ms(), i.getP99Ms(), i.getMaxMs(), i.getAcquisitionP99Ms()));
+        }
+        return sb.toString();
+    }
+}
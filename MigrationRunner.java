@@ -0,0 +1,289 @@
+package com.gestion.parking.dao;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Migrations de schéma versionnées, appliquées au démarrage avant l'ouverture de l'interface.
+// Les scripts sont lus sur le classpath (db/migration/), dans l'ordre de db/migration/migrations.lst,
+// et chaque version appliquée est enregistrée dans schema_version avec la somme de contrôle du script.
+// Un script qui commence par "-- mysql seulement" (SQL dynamique, information_schema) est enregistré
+// sans être exécuté sur la base embarquée.
+public class MigrationRunner {
+    private static final String DOSSIER = "db/migration/";
+    private static final String LISTE = DOSSIER + "migrations.lst";
+    private static final Pattern NOM_SCRIPT = Pattern.compile("V(\\d+)__(\\w+)\\.sql");
+    private static final String MYSQL_SEULEMENT = "-- mysql seulement";
+
+    // Verrou nommé MySQL: plusieurs postes qui démarrent en même temps n'appliquent pas deux fois
+    // (inutile et non supporté par la base embarquée, propre à une JVM)
+    private static final String VERROU = "gestion_parking_migrations";
+    private static final int ATTENTE_VERROU_SEC = 60;
+
+    private static final String CREATE_TABLE_VERSION =
+        "CREATE TABLE IF NOT EXISTS schema_version (" +
+        "version INT PRIMARY KEY, " +
+        "description VARCHAR(200) NOT NULL, " +
+        "script VARCHAR(200) NOT NULL, " +
+        "checksum CHAR(64) NOT NULL, " +
+        "applique_le DATETIME NOT NULL, " +
+        "duree_ms BIGINT NOT NULL" +
+        ") ENGINE = InnoDB";
+
+    // Script de migration trouvé sur le classpath
+    static final class Script {
+        final int version;
+        final String description;
+        final String nom;
+        final String contenu;
+        final String checksum;
+        final boolean mysqlSeulement;
+
+        Script(int version, String description, String nom, String contenu) {
+            this.version = version;
+            this.description = description;
+            this.nom = nom;
+            this.contenu = contenu;
+            this.checksum = sha256(contenu);
+            this.mysqlSeulement = contenu.startsWith(MYSQL_SEULEMENT);
+        }
+    }
+
+    // Appliquer les migrations en attente; retourne le nombre de versions appliquées.
+    // IllegalStateException en cas de dérive (script modifié ou base plus récente que l'application)
+    public int migrer(Connection conn) throws SQLException {
+        List<Script> scripts = chargerScripts();
+        boolean verrouille = !ConfigurationBase.get().estEmbarque();
+
+        if (verrouille) {
+            acquerirVerrou(conn);
+        }
+        try {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.executeUpdate(CREATE_TABLE_VERSION);
+            }
+
+            Map<Integer, String> appliquees = lireVersionsAppliquees(conn);
+            verifierDerive(scripts, appliquees);
+
+            int nombre = 0;
+            for (Script script : scripts) {
+                if (!appliquees.containsKey(script.version)) {
+                    appliquer(conn, script);
+                    nombre++;
+                }
+            }
+            return nombre;
+        } finally {
+            if (verrouille) {
+                libererVerrou(conn);
+            }
+        }
+    }
+
+    // Les versions déjà appliquées doivent exister sur le classpath avec le même contenu
+    private void verifierDerive(List<Script> scripts, Map<Integer, String> appliquees) {
+        Map<Integer, Script> parVersion = new HashMap<>();
+        for (Script script : scripts) {
+            parVersion.put(script.version, script);
+        }
+
+        for (Map.Entry<Integer, String> appliquee : appliquees.entrySet()) {
+            Script script = parVersion.get(appliquee.getKey());
+            if (script == null) {
+                throw new IllegalStateException("La base est en version " + appliquee.getKey() +
+                    ", inconnue de cette application (mise à jour de l'application requise)");
+            }
+            if (!script.checksum.equals(appliquee.getValue())) {
+                throw new IllegalStateException("Le script " + script.nom +
+                    " a été modifié après son application (somme de contrôle différente)");
+            }
+        }
+    }
+
+    private void appliquer(Connection conn, Script script) throws SQLException {
+        long debut = System.currentTimeMillis();
+        System.out.println("Migration V" + script.version + " (" + script.description + ")...");
+
+        // Le DDL MySQL valide implicitement: chaque instruction est définitive,
+        // la version n'est enregistrée qu'une fois le script entier exécuté
+        if (!script.mysqlSeulement || !ConfigurationBase.get().estEmbarque()) {
+            try (Statement stmt = conn.createStatement()) {
+                for (String instruction : decouper(script.contenu)) {
+                    try {
+                        stmt.execute(instruction);
+                    } catch (SQLException e) {
+                        throw new SQLException("Échec de la migration " + script.nom + " sur: " + instruction, e);
+                    }
+                }
+            }
+        }
+
+        String sql = "INSERT INTO schema_version (version, description, script, checksum, applique_le, duree_ms) " +
+                     "VALUES (?, ?, ?, ?, NOW(), ?)";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, script.version);
+            stmt.setString(2, script.description);
+            stmt.setString(3, script.nom);
+            stmt.setString(4, script.checksum);
+            stmt.setLong(5, System.currentTimeMillis() - debut);
+            stmt.executeUpdate();
+        }
+    }
+
+    private Map<Integer, String> lireVersionsAppliquees(Connection conn) throws SQLException {
+        Map<Integer, String> versions = new HashMap<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT version, checksum FROM schema_version")) {
+            while (rs.next()) {
+                versions.put(rs.getInt("version"), rs.getString("checksum"));
+            }
+        }
+        return versions;
+    }
+
+    private void acquerirVerrou(Connection conn) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT GET_LOCK(?, ?)")) {
+            stmt.setString(1, VERROU);
+            stmt.setInt(2, ATTENTE_VERROU_SEC);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next() || rs.getInt(1) != 1) {
+                    throw new SQLException("Verrou de migration non obtenu après " + ATTENTE_VERROU_SEC + " s");
+                }
+            }
+        }
+    }
+
+    private void libererVerrou(Connection conn) {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            stmt.setString(1, VERROU);
+            stmt.executeQuery().close();
+        } catch (SQLException e) {
+            System.err.println("Libération du verrou de migration impossible: " + e.getMessage());
+        }
+    }
+
+    // Scripts listés dans migrations.lst, versions strictement croissantes
+    List<Script> chargerScripts() {
+        List<Script> scripts = new ArrayList<>();
+        int precedente = 0;
+
+        for (String ligne : lireRessource(LISTE).split("\n")) {
+            String nom = ligne.trim();
+            if (nom.isEmpty() || nom.startsWith("#")) {
+                continue;
+            }
+
+            Matcher m = NOM_SCRIPT.matcher(nom);
+            if (!m.matches()) {
+                throw new IllegalStateException("Nom de script de migration invalide: " + nom);
+            }
+            int version = Integer.parseInt(m.group(1));
+            if (version <= precedente) {
+                throw new IllegalStateException("Versions de migration non croissantes: " + nom);
+            }
+            precedente = version;
+
+            scripts.add(new Script(version, m.group(2).replace('_', ' '), nom, lireRessource(DOSSIER + nom)));
+        }
+        return scripts;
+    }
+
+    // Découper un script en instructions: lignes de commentaire "--" ignorées, fin d'instruction par ";" en fin de ligne
+    static List<String> decouper(String contenu) {
+        List<String> instructions = new ArrayList<>();
+        StringBuilder courante = new StringBuilder();
+
+        for (String ligne : contenu.split("\n")) {
+            String texte = ligne.trim();
+            if (texte.isEmpty() || texte.startsWith("--")) {
+                continue;
+            }
+            courante.append(ligne).append('\n');
+            if (texte.endsWith(";")) {
+                String instruction = courante.toString().trim();
+                instructions.add(instruction.substring(0, instruction.length() - 1));
+                courante.setLength(0);
+            }
+        }
+        if (courante.toString().trim().length() > 0) {
+            instructions.add(courante.toString().trim());
+        }
+        return instructions;
+    }
+
+    // Contenu d'une ressource, fins de ligne normalisées (la somme de contrôle ne dépend pas de l'OS)
+    private static String lireRessource(String chemin) {
+        InputStream in = MigrationRunner.class.getClassLoader().getResourceAsStream(chemin);
+        if (in == null) {
+            throw new IllegalStateException("Ressource de migration introuvable sur le classpath: " + chemin);
+        }
+
+        StringBuilder contenu = new StringBuilder();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String ligne;
+            while ((ligne = reader.readLine()) != null) {
+                contenu.append(ligne).append('\n');
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Lecture impossible: " + chemin, e);
+        }
+        return contenu.toString();
+    }
+
+    private static String sha256(String contenu) {
+        try {
+            byte[] empreinte = MessageDigest.getInstance("SHA-256").digest(contenu.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder();
+            for (byte b : empreinte) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponible", e);
+        }
+    }
+
+    // Migrations puis vérification des plans d'exécution, au démarrage. Une exception signifie que
+    // l'application ne doit pas démarrer (dérive de schéma ou échec d'un script); une base injoignable
+    // n'empêche pas le démarrage.
+    public static void migrerAuDemarrage() throws SQLException {
+        // Base embarquée: schéma et données synthétiques (les index sont déjà dans les scripts)
+        if (ConfigurationBase.get().estEmbarque()) {
+            BaseEmbarquee.preparer();
+            return;
+        }
+
+        Connection conn;
+        try {
+            conn = DatabaseConnection.getConnection();
+        } catch (SQLException e) {
+            System.err.println("Base de données injoignable, migrations non vérifiées: " + e.getMessage());
+            return;
+        }
+
+        try {
+            int appliquees = new MigrationRunner().migrer(conn);
+            System.out.println("Schéma à jour (" + appliquees + " migration(s) appliquée(s))");
+
+            List<String> anomalies = new IndexSchema().verifierPlans(conn);
+            System.out.println("Plans d'exécution vérifiés: " + anomalies.size() + " anomalie(s)");
+            for (String anomalie : anomalies) {
+                System.err.println("  " + anomalie);
+            }
+        } finally {
+            DatabaseConnection.closeConnection(conn);
+        }
+    }
+}
@@ -9,18 +9,38 @@ import java.util.List;
 
 public class PaiementDAO {
     
-    private TicketDAO ticketDAO = new TicketDAO();
+    // Paiement + Ticket + Place + Vehicule en une seule requête (au lieu de 1 + 3N)
+    private static final String SELECT_AVEC_TICKET =
+        "SELECT pa.id, pa.montant, pa.date, " + TicketDAO.colonnesJointure("ticket_") + " " +
+        "FROM Paiement pa " +
+        "LEFT JOIN Ticket t ON t.id = pa.ticket_id " +
+        TicketDAO.JOINTURES_PLACE_VEHICULE;
+    
+    // Lignes légères: uniquement l'identifiant du ticket (totaux, exports...)
+    private static final String SELECT_LEGER = "SELECT pa.id, pa.ticket_id, pa.montant, pa.date FROM Paiement pa";
+    
+    private static final RowMapper<Ticket> TICKET_MAPPER = TicketDAO.mapper("ticket_");
     
     // Créer un paiement
     public int create(Paiement paiement) throws SQLException {
+        Connection conn = null;
+        
+        try {
+            conn = DatabaseConnection.getConnection();
+            return create(conn, paiement);
+        } finally {
+            DatabaseConnection.closeConnection(conn);
+        }
+    }
+    
+    // Créer un paiement sur une connexion existante (transaction de l'appelant)
+    public int create(Connection conn, Paiement paiement) throws SQLException {
         String sql = "INSERT INTO Paiement (ticket_id, montant, date) VALUES (?, ?, ?)";
         
-        Connection conn = null;
         PreparedStatement stmt = null;
         ResultSet rs = null;
         
         try {
-            conn = DatabaseConnection.getConnection();
             stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
             
             stmt.setInt(1, paiement.getTicket().getId());
@@ -39,13 +59,13 @@ public class PaiementDAO {
             }
             return -1;
         } finally {
-            closeResources(rs, stmt);
+            closeResources(rs, stmt, null);
         }
     }
     
     // Trouver par ID
     public Paiement findById(int id) throws SQLException {
-        String sql = "SELECT p.* FROM Paiement p WHERE p.id = ?";
+        String sql = SELECT_AVEC_TICKET + " WHERE pa.id = ?";
         
         Connection conn = null;
         PreparedStatement stmt = null;
@@ -58,10 +78,10 @@ public class PaiementDAO {
             rs = stmt.executeQuery();
             
             if (rs.next()) {
-                return mapResultSetToPaiement(rs);
+                return mapResultSetToPaiement(rs, true);
             }
         } finally {
-            closeResources(rs, stmt);
+            closeResources(rs, stmt, conn);
         }
         return null;
     }
@@ -69,7 +89,7 @@ public class PaiementDAO {
     // Trouver les paiements d'un ticket
     public List<Paiement> findByTicketId(int ticketId) throws SQLException {
         List<Paiement> paiements = new ArrayList<>();
-        String sql = "SELECT p.* FROM Paiement p WHERE p.ticket_id = ? ORDER BY p.date DESC";
+        String sql = SELECT_AVEC_TICKET + " WHERE pa.ticket_id = ? ORDER BY pa.date DESC";
         
         Connection conn = null;
         PreparedStatement stmt = null;
@@ -82,18 +102,24 @@ public class PaiementDAO {
             rs = stmt.executeQuery();
             
             while (rs.next()) {
-                paiements.add(mapResultSetToPaiement(rs));
+                paiements.add(mapResultSetToPaiement(rs, true));
             }
         } finally {
-            closeResources(rs, stmt);
+            closeResources(rs, stmt, conn);
         }
         return paiements;
     }
     
     // Trouver les paiements par date
     public List<Paiement> findByDate(LocalDateTime date) throws SQLException {
+        return findByDate(date, true);
+    }
+    
+    // Trouver les paiements par date (avecTicket = false: lignes légères sans le graphe Ticket)
+    public List<Paiement> findByDate(LocalDateTime date, boolean avecTicket) throws SQLException {
         List<Paiement> paiements = new ArrayList<>();
-        String sql = "SELECT p.* FROM Paiement p WHERE DATE(p.date) = DATE(?) ORDER BY p.date DESC";
+        String sql = (avecTicket ? SELECT_AVEC_TICKET : SELECT_LEGER) +
+                     " WHERE pa.date >= ? AND pa.date < ? ORDER BY pa.date DESC";
         
         Connection conn = null;
         PreparedStatement stmt = null;
@@ -102,14 +128,16 @@ public class PaiementDAO {
         try {
             conn = DatabaseConnection.getConnection();
             stmt = conn.prepareStatement(sql);
-            stmt.setTimestamp(1, Timestamp.valueOf(date));
+            // Journée de 'date' en intervalle semi-ouvert (utilisable par l'index sur Paiement.date)
+            stmt.setTimestamp(1, Timestamp.valueOf(date.toLocalDate().atStartOfDay()));
+            stmt.setTimestamp(2, Timestamp.valueOf(date.toLocalDate().plusDays(1).atStartOfDay()));
             rs = stmt.executeQuery();
             
             while (rs.next()) {
-                paiements.add(mapResultSetToPaiement(rs));
+                paiements.add(mapResultSetToPaiement(rs, avecTicket));
             }
         } finally {
-            closeResources(rs, stmt);
+            closeResources(rs, stmt, conn);
         }
         return paiements;
     }
@@ -117,8 +145,13 @@ public class PaiementDAO {
     
     // Lister tous les paiements
     public List<Paiement> findAll() throws SQLException {
+        return findAll(true);
+    }
+    
+    // Lister tous les paiements (avecTicket = false: lignes légères sans le graphe Ticket)
+    public List<Paiement> findAll(boolean avecTicket) throws SQLException {
         List<Paiement> paiements = new ArrayList<>();
-        String sql = "SELECT p.* FROM Paiement p ORDER BY p.date DESC";
+        String sql = (avecTicket ? SELECT_AVEC_TICKET : SELECT_LEGER) + " ORDER BY pa.date DESC";
         
         Connection conn = null;
         PreparedStatement stmt = null;
@@ -130,10 +163,10 @@ public class PaiementDAO {
             rs = stmt.executeQuery();
             
             while (rs.next()) {
-                paiements.add(mapResultSetToPaiement(rs));
+                paiements.add(mapResultSetToPaiement(rs, avecTicket));
             }
         } finally {
-            closeResources(rs, stmt);
+            closeResources(rs, stmt, conn);
         }
         return paiements;
     }
@@ -156,7 +189,7 @@ public class PaiementDAO {
                 return rs.getDouble(1);
             }
         } finally {
-            closeResources(rs, stmt);
+            closeResources(rs, stmt, conn);
         }
         return 0.0;
     }
@@ -180,7 +213,7 @@ public class PaiementDAO {
                 return rs.getDouble(1);
             }
         } finally {
-            closeResources(rs, stmt);
+            closeResources(rs, stmt, conn);
         }
         return 0.0;
     }
@@ -209,7 +242,7 @@ public class PaiementDAO {
                 return totalPaye >= montantTicket;
             }
         } finally {
-            closeResources(rs, stmt);
+            closeResources(rs, stmt, conn);
         }
         return false;
     }
@@ -231,20 +264,23 @@ public class PaiementDAO {
                 return rs.getInt(1);
             }
         } finally {
-            closeResources(rs, stmt);
+            closeResources(rs, stmt, conn);
         }
         return 0;
     }
     
     // Méthode utilitaire pour mapper ResultSet -> Paiement
-    private Paiement mapResultSetToPaiement(ResultSet rs) throws SQLException {
+    private Paiement mapResultSetToPaiement(ResultSet rs, boolean avecTicket) throws SQLException {
         Paiement paiement = new Paiement();
         paiement.setId(rs.getInt("id"));
         
-        // Récupérer le ticket associé
-        int ticketId = rs.getInt("ticket_id");
-        Ticket ticket = ticketDAO.findById(ticketId);
-        paiement.setTicket(ticket);
+        // Ticket associé: hydraté depuis la jointure, ou seulement son identifiant
+        if (avecTicket) {
+            paiement.setTicket(TICKET_MAPPER.mapRow(rs));
+        } else {
+            int ticketId = rs.getInt("ticket_id");
+            paiement.setTicketId(rs.wasNull() ? null : ticketId);
+        }
         
         paiement.setMontant(rs.getDouble("montant"));
         
@@ -256,8 +292,8 @@ public class PaiementDAO {
         return paiement;
     }
     
-    // Méthode pour fermer les ressources
-    private void closeResources(ResultSet rs, Statement stmt) {
+    // Méthode pour fermer les ressources (la connexion retourne au pool)
+    private void closeResources(ResultSet rs, Statement stmt, Connection conn) {
         if (rs != null) {
             try {
                 rs.close();
@@ -273,5 +309,7 @@ public class PaiementDAO {
                 System.err.println("Erreur lors de la fermeture du Statement: " + e.getMessage());
             }
         }
+        
+        DatabaseConnection.closeConnection(conn);
     }
 }
\ No newline at end of file
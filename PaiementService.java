@@ -124,6 +124,16 @@ public class PaiementService {
         }
     }
     
+    // Lister tous les paiements sans charger les tickets (totaux, exports)
+    public List<Paiement> listerPaiementsLegers() {
+        try {
+            return paiementDAO.findAll(false);
+        } catch (SQLException e) {
+            System.err.println("Erreur lors du listage des paiements: " + e.getMessage());
+            return null;
+        }
+    }
+    
     // Calculer le total payé pour un ticket
     public double calculerTotalPaye(Ticket ticket) {
         try {
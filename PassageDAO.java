@@ -0,0 +1,88 @@
+package com.gestion.parking.dao;
+
+import com.gestion.parking.model.Ticket;
+import com.gestion.parking.model.Vehicule;
+import java.sql.*;
+
+// Requêtes des passages en borne (entrée/sortie), exécutées sur la connexion transactionnelle de l'appelant
+public class PassageDAO {
+    
+    // État d'un véhicule au passage en borne, lu en une seule requête
+    public static class EtatPassage {
+        private final Vehicule vehicule;
+        private final boolean dansParking;
+        private final boolean abonneValide;
+        private final Ticket ticketEnCours;
+        
+        EtatPassage(Vehicule vehicule, boolean dansParking, boolean abonneValide, Ticket ticketEnCours) {
+            this.vehicule = vehicule;
+            this.dansParking = dansParking;
+            this.abonneValide = abonneValide;
+            this.ticketEnCours = ticketEnCours;
+        }
+        
+        public Vehicule getVehicule() {
+            return vehicule;
+        }
+        
+        public boolean isDansParking() {
+            return dansParking;
+        }
+        
+        // Renseigné uniquement par lireEtatSortie
+        public boolean isAbonneValide() {
+            return abonneValide;
+        }
+        
+        // Renseigné uniquement par lireEtatSortie
+        public Ticket getTicketEnCours() {
+            return ticketEnCours;
+        }
+    }
+    
+    // Véhicule + ticket en cours (null si le véhicule n'est pas enregistré); l'abonnement n'est lu qu'à la sortie
+    public EtatPassage lireEtat(Connection conn, String immatriculation) throws SQLException {
+        String sql = "SELECT v.id, v.immatriculation, v.proprietaire, " +
+                     "EXISTS(SELECT 1 FROM Ticket t WHERE t.vehicule_id = v.id AND t.sortie IS NULL) AS dans_parking " +
+                     "FROM Vehicule v WHERE v.immatriculation = ?";
+        
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, immatriculation);
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return new EtatPassage(
+                        VehiculeDAO.MAPPER.mapRow(rs),
+                        rs.getBoolean("dans_parking"),
+                        false,
+                        null
+                    );
+                }
+            }
+        }
+        return null;
+    }
+    
+    // Ticket en cours (avec place et véhicule) + abonnement valide (null si le véhicule n'est pas dans le parking)
+    public EtatPassage lireEtatSortie(Connection conn, String immatriculation) throws SQLException {
+        String sql = "SELECT " + TicketDAO.COLONNES_JOINTURE + ", " +
+                     "EXISTS(SELECT 1 FROM Abonne a WHERE a.vehicule_id = v.id " +
+                     "AND a.dateDebut <= CURDATE() AND a.dateFin >= CURDATE()) AS abonne_valide " +
+                     "FROM Ticket t " +
+                     "JOIN Vehicule v ON v.id = t.vehicule_id " +
+                     "LEFT JOIN Place p ON p.id = t.place_id " +
+                     "WHERE v.immatriculation = ? AND t.sortie IS NULL";
+        
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, immatriculation);
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    Ticket ticket = TicketDAO.MAPPER.mapRow(rs);
+                    return new EtatPassage(ticket.getVehicule(), true, rs.getBoolean("abonne_valide"), ticket);
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,190 @@
+package com.gestion.parking.service;
+
+import com.gestion.parking.dao.ConfigurationBase;
+import com.gestion.parking.dao.PlaceDAO;
+import com.gestion.parking.model.Place;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Allocateur en mémoire des places libres, partagé par toutes les instances de PlaceService.
+// Les places libres sont triées par numéro (même ordre que PlaceDAO.findPlacesLibres),
+// ce qui donne la première place libre en O(log n) et le nombre de places libres en O(1).
+// Une réconciliation périodique avec la table Place corrige les changements faits par d'autres postes.
+public class PlaceAllocator {
+    private static final long RECONCILIATION_SEC = ConfigurationBase.get().entierLong("parking.places.reconciliationSec", 30L);
+
+    private static final PlaceAllocator INSTANCE = new PlaceAllocator(new PlaceDAO());
+
+    private final PlaceDAO placeDAO;
+    private final Map<Integer, Place> places = new HashMap<>();
+    private final TreeMap<String, Integer> libresParNumero = new TreeMap<>();
+    private volatile boolean initialise = false;
+    // Numéro de la dernière modification locale de chaque place: une réconciliation garde l'état local
+    // des places modifiées pendant sa lecture et applique l'instantané à toutes les autres
+    private long modifications = 0;
+    private final Map<Integer, Long> derniereModification = new HashMap<>();
+    private ScheduledExecutorService reconciliateur;
+
+    PlaceAllocator(PlaceDAO placeDAO) {
+        this.placeDAO = placeDAO;
+    }
+
+    public static PlaceAllocator getInstance() {
+        return INSTANCE;
+    }
+
+    // Charger l'état au premier usage; false si la base est indisponible
+    public boolean assurerInitialise() {
+        if (initialise) {
+            return true;
+        }
+        synchronized (this) {
+            if (!initialise) {
+                try {
+                    reconcilier();
+                } catch (SQLException e) {
+                    System.err.println("Initialisation de l'allocateur de places impossible: " + e.getMessage());
+                }
+            }
+            return initialise;
+        }
+    }
+
+    // Reconstruire l'état à partir de la table Place; démarre la réconciliation périodique au premier appel
+    // (y compris via PlaceService.reconcilierPlaces ou reinitialiserPlaces, avant tout assurerInitialise)
+    public void reconcilier() throws SQLException {
+        long avant;
+        synchronized (this) {
+            avant = modifications;
+        }
+        List<Place> toutes = placeDAO.findAll();
+
+        synchronized (this) {
+            // Places modifiées localement pendant la lecture (null si retirée): plus récentes que l'instantané
+            Map<Integer, Place> locales = new HashMap<>();
+            for (Map.Entry<Integer, Long> modification : derniereModification.entrySet()) {
+                if (modification.getValue() > avant) {
+                    locales.put(modification.getKey(), places.get(modification.getKey()));
+                }
+            }
+
+            places.clear();
+            libresParNumero.clear();
+            for (Place place : toutes) {
+                if (!locales.containsKey(place.getId())) {
+                    places.put(place.getId(), copier(place));
+                }
+            }
+            for (Map.Entry<Integer, Place> locale : locales.entrySet()) {
+                if (locale.getValue() != null) {
+                    places.put(locale.getKey(), locale.getValue());
+                }
+            }
+            for (Place place : places.values()) {
+                if (place.isLibre()) {
+                    libresParNumero.put(place.getNumero(), place.getId());
+                }
+            }
+            initialise = true;
+            demarrerReconciliationPeriodique();
+        }
+    }
+
+    private synchronized void demarrerReconciliationPeriodique() {
+        if (reconciliateur != null || RECONCILIATION_SEC <= 0) {
+            return;
+        }
+        reconciliateur = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "places-reconciliation");
+            t.setDaemon(true);
+            return t;
+        });
+        reconciliateur.scheduleWithFixedDelay(() -> {
+            try {
+                reconcilier();
+            } catch (SQLException e) {
+                System.err.println("Réconciliation des places échouée: " + e.getMessage());
+            }
+        }, RECONCILIATION_SEC, RECONCILIATION_SEC, TimeUnit.SECONDS);
+    }
+
+    // Première place libre (par numéro), sans la réserver
+    public synchronized Place premiereLibre() {
+        Map.Entry<String, Integer> premiere = libresParNumero.firstEntry();
+        return premiere == null ? null : copier(places.get(premiere.getValue()));
+    }
+
+    // Réserver la première place libre (la retire de la liste des places libres)
+    public synchronized Place reserver() {
+        Map.Entry<String, Integer> premiere = libresParNumero.pollFirstEntry();
+        if (premiere == null) {
+            return null;
+        }
+        noterModification(premiere.getValue());
+        Place place = places.get(premiere.getValue());
+        place.setOccupee();
+        return copier(place);
+    }
+
+    public synchronized int nombreLibres() {
+        return libresParNumero.size();
+    }
+
+    public synchronized int nombreTotal() {
+        return places.size();
+    }
+
+    public synchronized void marquerOccupee(int placeId) {
+        noterModification(placeId);
+        Place place = places.get(placeId);
+        if (place != null) {
+            libresParNumero.remove(place.getNumero(), placeId);
+            place.setOccupee();
+        }
+    }
+
+    public synchronized void marquerLibre(int placeId) {
+        noterModification(placeId);
+        Place place = places.get(placeId);
+        if (place != null) {
+            place.setLibre();
+            libresParNumero.put(place.getNumero(), placeId);
+        }
+    }
+
+    // Ajouter ou mettre à jour une place (création, modification)
+    public synchronized void enregistrer(Place place) {
+        if (place == null || place.getId() <= 0) {
+            return;
+        }
+        noterModification(place.getId());
+        retirer(place.getId());
+        places.put(place.getId(), copier(place));
+        if (place.isLibre()) {
+            libresParNumero.put(place.getNumero(), place.getId());
+        }
+    }
+
+    public synchronized void retirer(int placeId) {
+        noterModification(placeId);
+        Place ancienne = places.remove(placeId);
+        if (ancienne != null) {
+            libresParNumero.remove(ancienne.getNumero(), placeId);
+        }
+    }
+
+    private void noterModification(int placeId) {
+        derniereModification.put(placeId, ++modifications);
+    }
+
+    // Les appelants reçoivent des copies: l'état interne n'est modifié que par l'allocateur
+    private static Place copier(Place place) {
+        return place == null ? null : new Place(place.getId(), place.getNumero(), place.getStatut());
+    }
+}
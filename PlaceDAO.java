@@ -116,6 +116,54 @@ public class PlaceDAO {
         }
     }
     
+    // Occuper une place seulement si elle est encore libre (réservation atomique)
+    public boolean occuperSiLibre(Connection conn, int placeId) throws SQLException {
+        String sql = "UPDATE Place SET statut = 'OCCUPEE' WHERE id = ? AND statut = 'LIBRE'";
+        
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, placeId);
+            return stmt.executeUpdate() > 0;
+        }
+    }
+    
+    // Libérer une place sur une connexion existante
+    public boolean libererPlace(Connection conn, int placeId) throws SQLException {
+        String sql = "UPDATE Place SET statut = 'LIBRE' WHERE id = ?";
+        
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, placeId);
+            return stmt.executeUpdate() > 0;
+        }
+    }
+    
+    // Réserver la première place libre par numéro, sur une connexion transactionnelle.
+    // Lecture verrouillante: elle voit la dernière version validée (et non l'instantané de la transaction),
+    // puis UPDATE conditionnel sur la ligne verrouillée. D'abord sans attendre (places verrouillées par une
+    // autre borne ignorées); si rien n'est trouvé, en attendant les verrous: toutes les places libres peuvent
+    // être en cours de réservation ailleurs, et H2 ne passe pas à la ligne suivante avec SKIP LOCKED ... LIMIT.
+    public Place occuperPremiereLibre(Connection conn) throws SQLException {
+        String sql = "SELECT p.* FROM Place p WHERE p.statut = 'LIBRE' ORDER BY p.numero LIMIT 1 FOR UPDATE";
+        
+        Place place = lirePlaceVerrouillee(conn, sql + " SKIP LOCKED");
+        if (place == null) {
+            place = lirePlaceVerrouillee(conn, sql);
+        }
+        
+        if (place == null || !occuperSiLibre(conn, place.getId())) {
+            return null;
+        }
+        place.setOccupee();
+        return place;
+    }
+    
+    private Place lirePlaceVerrouillee(Connection conn, String sql) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+            
+            return rs.next() ? mapResultSetToPlace(rs) : null;
+        }
+    }
+    
     // Libérer une place
     public boolean libererPlace(int placeId) throws SQLException {
         String sql = "UPDATE Place SET statut = 'LIBRE' WHERE id = ?";
@@ -236,10 +284,24 @@ public class PlaceDAO {
     
     // Méthode utilitaire pour mapper ResultSet -> Place
     private Place mapResultSetToPlace(ResultSet rs) throws SQLException {
-        Place place = new Place();
-        place.setId(rs.getInt("id"));
-        place.setNumero(rs.getString("numero"));
-        place.setStatut(rs.getString("statut"));
-        return place;
+        return MAPPER.mapRow(rs);
+    }
+    
+    // Mapper des colonnes Place (sans préfixe)
+    static final RowMapper<Place> MAPPER = mapper("");
+    
+    // Mapper des colonnes Place préfixées (ex: "place_" dans une jointure), null si absente
+    static RowMapper<Place> mapper(String prefixe) {
+        return rs -> {
+            int id = rs.getInt(prefixe + "id");
+            if (rs.wasNull()) {
+                return null;
+            }
+            Place place = new Place();
+            place.setId(id);
+            place.setNumero(rs.getString(prefixe + "numero"));
+            place.setStatut(rs.getString(prefixe + "statut"));
+            return place;
+        };
     }
 }
\ No newline at end of file
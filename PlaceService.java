@@ -1,15 +1,20 @@
 package com.gestion.parking.service;
 
 import com.gestion.parking.dao.PlaceDAO;
+import com.gestion.parking.dao.TicketDAO;
 import com.gestion.parking.model.Place;
 import java.sql.SQLException;
 import java.util.List;
 
 public class PlaceService {
     private PlaceDAO placeDAO;
+    private TicketDAO ticketDAO;
+    private PlaceAllocator allocateur;
     
     public PlaceService() {
         this.placeDAO = new PlaceDAO();
+        this.ticketDAO = new TicketDAO();
+        this.allocateur = PlaceAllocator.getInstance();
     }
     
     // Ajouter une nouvelle place
@@ -26,6 +31,7 @@ public class PlaceService {
             place.setStatut("LIBRE"); // Par défaut, la place est libre
             
             placeDAO.create(place);
+            allocateur.enregistrer(place);
             return place;
             
         } catch (SQLException e) {
@@ -56,8 +62,12 @@ public class PlaceService {
         }
     }
     
-    // Trouver une place libre (méthode CORRIGÉE)
+    // Trouver une place libre (allocateur en mémoire, repli sur la base si indisponible)
     public Place trouverPlaceLibre() {
+        if (allocateur.assurerInitialise()) {
+            return allocateur.premiereLibre();
+        }
+        
         try {
             List<Place> placesLibres = placeDAO.findPlacesLibres();
             if (placesLibres == null || placesLibres.isEmpty()) {
@@ -80,12 +90,17 @@ public class PlaceService {
             }
             
             if (!"LIBRE".equals(place.getStatut())) {
+                allocateur.marquerOccupee(placeId); // corriger un état local obsolète
                 throw new IllegalStateException("La place n'est pas libre");
             }
             
             // Mettre à jour le statut
             place.setStatut("OCCUPEE");
-            return placeDAO.update(place);
+            boolean ok = placeDAO.update(place);
+            if (ok) {
+                allocateur.marquerOccupee(placeId);
+            }
+            return ok;
         } catch (SQLException e) {
             System.err.println("Erreur lors de l'occupation de la place: " + e.getMessage());
             e.printStackTrace();
@@ -103,12 +118,17 @@ public class PlaceService {
             }
             
             if (!"OCCUPEE".equals(place.getStatut())) {
+                allocateur.marquerLibre(placeId); // corriger un état local obsolète
                 throw new IllegalStateException("La place n'est pas occupée");
             }
             
             // Mettre à jour le statut
             place.setStatut("LIBRE");
-            return placeDAO.update(place);
+            boolean ok = placeDAO.update(place);
+            if (ok) {
+                allocateur.marquerLibre(placeId);
+            }
+            return ok;
         } catch (SQLException e) {
             System.err.println("Erreur lors de la libération de la place: " + e.getMessage());
             e.printStackTrace();
@@ -119,7 +139,11 @@ public class PlaceService {
     // Mettre à jour une place
     public boolean mettreAJourPlace(Place place) {
         try {
-            return placeDAO.update(place);
+            boolean ok = placeDAO.update(place);
+            if (ok) {
+                allocateur.enregistrer(place);
+            }
+            return ok;
         } catch (SQLException e) {
             System.err.println("Erreur lors de la mise à jour de la place: " + e.getMessage());
             e.printStackTrace();
@@ -140,7 +164,19 @@ public class PlaceService {
                 throw new IllegalStateException("Impossible de supprimer une place occupée");
             }
             
-            return placeDAO.delete(id);
+            // Les tickets référencent la place (clé étrangère): refuser avant l'échec du DELETE
+            if (ticketDAO.existsTicketEnCoursByPlace(id)) {
+                throw new IllegalStateException("Impossible de supprimer une place avec un ticket en cours");
+            }
+            if (ticketDAO.existsByPlace(id)) {
+                throw new IllegalStateException("Cette place a des tickets historiques et ne peut pas être supprimée");
+            }
+            
+            boolean ok = placeDAO.delete(id);
+            if (ok) {
+                allocateur.retirer(id);
+            }
+            return ok;
         } catch (SQLException e) {
             System.err.println("Erreur lors de la suppression de la place: " + e.getMessage());
             e.printStackTrace();
@@ -199,8 +235,12 @@ public class PlaceService {
         }
     }
     
-    // Compter les places disponibles (méthode CORRIGÉE)
+    // Compter les places disponibles (O(1) via l'allocateur, repli sur la base)
     public int compterPlacesDisponibles() {
+        if (allocateur.assurerInitialise()) {
+            return allocateur.nombreLibres();
+        }
+        
         try {
             return placeDAO.countPlacesDisponibles();
         } catch (SQLException e) {
@@ -244,6 +284,17 @@ public class PlaceService {
         return (double) occupees / total * 100.0;
     }
     
+    // Resynchroniser l'allocateur avec la table Place
+    public boolean reconcilierPlaces() {
+        try {
+            allocateur.reconcilier();
+            return true;
+        } catch (SQLException e) {
+            System.err.println("Erreur lors de la réconciliation des places: " + e.getMessage());
+            return false;
+        }
+    }
+    
     // Vérifier si le parking est complet
     public boolean estParkingComplet() {
         return compterPlacesDisponibles() == 0;
@@ -252,7 +303,9 @@ public class PlaceService {
     // Réinitialiser toutes les places (pour les tests)
     public boolean reinitialiserPlaces() {
         try {
-            return placeDAO.resetAllPlaces();
+            boolean ok = placeDAO.resetAllPlaces();
+            allocateur.reconcilier();
+            return ok;
         } catch (SQLException e) {
             System.err.println("Erreur lors de la réinitialisation des places: " + e.getMessage());
             e.printStackTrace();
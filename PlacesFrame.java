@@ -11,12 +11,14 @@ public class PlacesFrame extends JInternalFrame {
     private PlaceService placeService;
     private JTable table;
     private DefaultTableModel tableModel;
+    private AsyncLoader loader;
     
     public PlacesFrame() {
         super("Gestion des Places", true, true, true, true);
         setSize(1000, 600);
         
         placeService = new PlaceService();
+        loader = new AsyncLoader(this);
         
         initComponents();
         loadData();
@@ -133,45 +135,8 @@ public class PlacesFrame extends JInternalFrame {
     }
     
     private void loadData() {
-        try {
-            System.out.println("Chargement des données..."); // Debug
-            
-            // Vider la table
-            tableModel.setRowCount(0);
-            
-            // Récupérer les données depuis le service
-            List<Place> places = placeService.listerToutesPlaces();
-            
-            if (places == null) {
-                System.out.println("La liste des places est null");
-                JOptionPane.showMessageDialog(this, 
-                    "Impossible de charger les places.\n" +
-                    "Vérifiez la connexion à la base de données.", 
-                    "Erreur de chargement", JOptionPane.WARNING_MESSAGE);
-                return;
-            }
-            
-            System.out.println("Nombre de places trouvées: " + places.size()); // Debug
-            
-            // Ajouter les places à la table
-            for (Place place : places) {
-                tableModel.addRow(new Object[]{
-                    place.getId(),
-                    place.getNumero(),
-                    place.getStatut()
-                });
-            }
-            
-            // Mettre à jour l'affichage
-            tableModel.fireTableDataChanged();
-            
-            // Mettre à jour les statistiques
-            updateStatsPanel();
-            
-            // Message de confirmation (optionnel)
-            System.out.println("Données chargées avec succès: " + places.size() + " places");
-            
-        } catch (Exception e) {
+        // Places et statistiques lues hors EDT, appliquées ensemble à la fin
+        loader.charger("places", this::lireDonnees, this::afficherDonnees, e -> {
             System.err.println("Erreur lors du chargement des données: " + e.getMessage());
             e.printStackTrace();
             
@@ -180,10 +145,58 @@ public class PlacesFrame extends JInternalFrame {
                 e.getMessage() + "\n" +
                 "Veuillez vérifier la connexion à la base de données.", 
                 "Erreur de chargement", JOptionPane.ERROR_MESSAGE);
+        });
+    }
+    
+    // Exécuté en arrière-plan: aucun accès aux composants Swing ici
+    private DonneesPlaces lireDonnees() {
+        DonneesPlaces donnees = new DonneesPlaces();
+        donnees.places = placeService.listerToutesPlaces();
+        if (donnees.places == null) {
+            return donnees;
+        }
+        
+        try {
+            donnees.totalPlaces = placeService.compterToutesPlaces();
+            donnees.placesOccupees = placeService.compterPlacesOccupees();
+            donnees.placesLibres = placeService.compterPlacesDisponibles();
+            donnees.tauxOccupation = placeService.calculerTauxOccupation();
+            donnees.statsDisponibles = true;
+        } catch (Exception e) {
+            System.err.println("Erreur lors de la mise à jour des statistiques: " + e.getMessage());
+        }
+        return donnees;
+    }
+    
+    private void afficherDonnees(DonneesPlaces donnees) {
+        // Vider la table
+        tableModel.setRowCount(0);
+        
+        if (donnees.places == null) {
+            System.out.println("La liste des places est null");
+            JOptionPane.showMessageDialog(this, 
+                "Impossible de charger les places.\n" +
+                "Vérifiez la connexion à la base de données.", 
+                "Erreur de chargement", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        
+        // Ajouter les places à la table
+        for (Place place : donnees.places) {
+            tableModel.addRow(new Object[]{
+                place.getId(),
+                place.getNumero(),
+                place.getStatut()
+            });
         }
+        
+        // Mettre à jour les statistiques
+        updateStatsPanel(donnees);
+        
+        System.out.println("Données chargées avec succès: " + donnees.places.size() + " places");
     }
     
-    private void updateStatsPanel() {
+    private void updateStatsPanel(DonneesPlaces donnees) {
         // Obtenir le panel de statistiques
         JPanel mainPanel = (JPanel) getContentPane();
         JPanel statsPanel = (JPanel) mainPanel.getComponent(2); // Index 2 = BorderLayout.SOUTH
@@ -191,22 +204,13 @@ public class PlacesFrame extends JInternalFrame {
         // Vider le panel de statistiques
         statsPanel.removeAll();
         
-        try {
-            // Calculer les statistiques
-            int totalPlaces = placeService.compterToutesPlaces();
-            int placesOccupees = placeService.compterPlacesOccupees();
-            int placesLibres = placeService.compterPlacesDisponibles();
-            double tauxOccupation = placeService.calculerTauxOccupation();
-            
+        if (donnees.statsDisponibles) {
             // Ajouter les statistiques mises à jour
-            statsPanel.add(createStatItem("Total Places", String.valueOf(totalPlaces), Color.LIGHT_GRAY));
-            statsPanel.add(createStatItem("Places Libres", String.valueOf(placesLibres), new Color(200, 230, 201)));
-            statsPanel.add(createStatItem("Places Occupées", String.valueOf(placesOccupees), new Color(255, 205, 210)));
-            statsPanel.add(createStatItem("Taux Occupation", String.format("%.1f%%", tauxOccupation), new Color(255, 224, 178)));
-            
-        } catch (Exception e) {
-            System.err.println("Erreur lors de la mise à jour des statistiques: " + e.getMessage());
-            
+            statsPanel.add(createStatItem("Total Places", String.valueOf(donnees.totalPlaces), Color.LIGHT_GRAY));
+            statsPanel.add(createStatItem("Places Libres", String.valueOf(donnees.placesLibres), new Color(200, 230, 201)));
+            statsPanel.add(createStatItem("Places Occupées", String.valueOf(donnees.placesOccupees), new Color(255, 205, 210)));
+            statsPanel.add(createStatItem("Taux Occupation", String.format("%.1f%%", donnees.tauxOccupation), new Color(255, 224, 178)));
+        } else {
             // Afficher des valeurs par défaut en cas d'erreur
             statsPanel.add(createStatItem("Total Places", "Erreur", Color.LIGHT_GRAY));
             statsPanel.add(createStatItem("Places Libres", "Erreur", new Color(200, 230, 201)));
@@ -219,6 +223,16 @@ public class PlacesFrame extends JInternalFrame {
         statsPanel.repaint();
     }
     
+    // Résultat d'un chargement: places et statistiques lues dans le même passage
+    private static class DonneesPlaces {
+        List<Place> places;
+        int totalPlaces;
+        int placesOccupees;
+        int placesLibres;
+        double tauxOccupation;
+        boolean statsDisponibles;
+    }
+    
     private JPanel createStatItem(String title, String value, Color bgColor) {
         JPanel panel = new JPanel(new BorderLayout());
         panel.setBorder(BorderFactory.createCompoundBorder(
@@ -0,0 +1,264 @@
+package com.gestion.parking.dao;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.FileHandler;
+import java.util.logging.Formatter;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+// Instructions SQL plus longues que parking.metriques.seuilLenteMs, signalées par InstrumentationJdbc:
+// texte SQL, valeurs des paramètres, méthode d'accès aux données et méthode appelante.
+// Chacune est écrite dans un journal à rotation (parking.metriques.lentes.fichier, vide pour désactiver)
+// et les N plus lentes depuis le démarrage sont conservées en mémoire (parking.metriques.lentes.top).
+// L'écriture se fait sur un thread dédié: le thread de l'instruction dépose la requête dans une file bornée
+// sans attendre le disque; file pleine, la requête n'est pas journalisée (comptée dans getNonJournalisees).
+public final class RequetesLentes {
+    private static final ConfigurationBase CONFIG = ConfigurationBase.get();
+    private static final String FICHIER = CONFIG.valeur("parking.metriques.lentes.fichier", "requetes-lentes.%g.log");
+    private static final int TAILLE_MAX_OCTETS = CONFIG.entier("parking.metriques.lentes.tailleMaxOctets", 5_000_000);
+    private static final int NOMBRE_FICHIERS = CONFIG.entier("parking.metriques.lentes.fichiers", 5);
+    private static final int TOP = CONFIG.entier("parking.metriques.lentes.top", 20);
+
+    // Longueur maximale d'une valeur de paramètre dans le journal
+    private static final int LONGUEUR_MAX_VALEUR = 200;
+    // Requêtes en attente d'écriture dans le journal
+    private static final int FILE_MAX = 1000;
+
+    private static final RequetesLentes INSTANCE = new RequetesLentes();
+
+    // Une instruction lente (durée en millisecondes)
+    public static final class RequeteLente {
+        private final LocalDateTime horodatage;
+        private final double dureeMs;
+        private final String methode;
+        private final String appelant;
+        private final String sql;
+        private final String parametres;
+        private final int lots;
+        private final boolean succes;
+
+        RequeteLente(LocalDateTime horodatage, double dureeMs, String methode, String appelant, String sql,
+                     String parametres, int lots, boolean succes) {
+            this.horodatage = horodatage;
+            this.dureeMs = dureeMs;
+            this.methode = methode;
+            this.appelant = appelant;
+            this.sql = sql;
+            this.parametres = parametres;
+            this.lots = lots;
+            this.succes = succes;
+        }
+
+        public LocalDateTime getHorodatage() {
+            return horodatage;
+        }
+
+        public double getDureeMs() {
+            return dureeMs;
+        }
+
+        public String getMethode() {
+            return methode;
+        }
+
+        public String getAppelant() {
+            return appelant;
+        }
+
+        public String getSql() {
+            return sql;
+        }
+
+        public String getParametres() {
+            return parametres;
+        }
+
+        public int getLots() {
+            return lots;
+        }
+
+        public boolean isSucces() {
+            return succes;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%s %.1f ms %s <- %s%s%s | %s | %s",
+                horodatage, dureeMs, methode, appelant,
+                lots > 0 ? " (lot de " + lots + ")" : "", succes ? "" : " [erreur]", sql, parametres);
+        }
+    }
+
+    // Les plus lentes, la plus rapide en tête (c'est elle qui sort quand une plus lente arrive)
+    private final PriorityQueue<RequeteLente> plusLentes =
+        new PriorityQueue<>(Comparator.comparingDouble(RequeteLente::getDureeMs));
+    private final BlockingQueue<RequeteLente> aJournaliser = new ArrayBlockingQueue<>(FILE_MAX);
+    private final LongAdder nonJournalisees = new LongAdder();
+    private volatile boolean journalIndisponible = FICHIER.trim().isEmpty();
+    private volatile Thread ecrivain;
+    private FileHandler journal;
+
+    private RequetesLentes() {}
+
+    public static RequetesLentes getInstance() {
+        return INSTANCE;
+    }
+
+    // Appelé sur le thread de l'instruction, uniquement au-delà du seuil (sans écriture disque)
+    void signaler(long nanos, String methode, String appelant, String sql, Object[] parametres, int nombreParametres,
+                  int lots, boolean succes) {
+        RequeteLente requete = new RequeteLente(LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS), nanos / 1_000_000.0, methode, appelant,
+            normaliser(sql), formaterParametres(parametres, nombreParametres), lots, succes);
+
+        synchronized (plusLentes) {
+            if (plusLentes.size() < TOP) {
+                plusLentes.add(requete);
+            } else if (TOP > 0 && plusLentes.peek().getDureeMs() < requete.getDureeMs()) {
+                plusLentes.poll();
+                plusLentes.add(requete);
+            }
+        }
+        if (!journalIndisponible) {
+            demarrerEcrivain();
+            if (!aJournaliser.offer(requete)) {
+                nonJournalisees.increment();
+            }
+        }
+    }
+
+    // Les N instructions les plus lentes depuis le démarrage, la plus lente d'abord
+    public List<RequeteLente> getPlusLentes() {
+        List<RequeteLente> resultat;
+        synchronized (plusLentes) {
+            resultat = new ArrayList<>(plusLentes);
+        }
+        resultat.sort(Comparator.comparingDouble(RequeteLente::getDureeMs).reversed());
+        return Collections.unmodifiableList(resultat);
+    }
+
+    public void reinitialiser() {
+        synchronized (plusLentes) {
+            plusLentes.clear();
+        }
+    }
+
+    // Requêtes lentes écartées du journal faute de place dans la file d'écriture
+    public long getNonJournalisees() {
+        return nonJournalisees.sum();
+    }
+
+    // Thread d'écriture démarré à la première requête lente; la file est vidée à l'arrêt de la JVM
+    private void demarrerEcrivain() {
+        if (ecrivain != null) {
+            return;
+        }
+        synchronized (aJournaliser) {
+            if (ecrivain == null) {
+                Thread t = new Thread(this::journaliserEnContinu, "requetes-lentes-journal");
+                t.setDaemon(true);
+                t.start();
+                Runtime.getRuntime().addShutdownHook(new Thread(this::vider, "requetes-lentes-arret"));
+                ecrivain = t;
+            }
+        }
+    }
+
+    // Un lot = la requête attendue et celles arrivées entre-temps, un seul flush par lot
+    private void journaliserEnContinu() {
+        List<RequeteLente> lot = new ArrayList<>();
+        try {
+            while (!journalIndisponible) {
+                lot.add(aJournaliser.take());
+                aJournaliser.drainTo(lot);
+                ecrire(lot);
+                lot.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void vider() {
+        List<RequeteLente> lot = new ArrayList<>();
+        aJournaliser.drainTo(lot);
+        ecrire(lot);
+    }
+
+    private synchronized void ecrire(List<RequeteLente> lot) {
+        if (journalIndisponible || lot.isEmpty()) {
+            return;
+        }
+        if (journal == null) {
+            try {
+                journal = new FileHandler(FICHIER, TAILLE_MAX_OCTETS, NOMBRE_FICHIERS, true);
+                journal.setEncoding("UTF-8");
+                journal.setFormatter(new Formatter() {
+                    @Override
+                    public String format(LogRecord record) {
+                        return record.getMessage() + System.lineSeparator();
+                    }
+                });
+            } catch (IOException | SecurityException e) {
+                System.err.println("Journal des requêtes lentes indisponible (" + FICHIER + "): " + e.getMessage());
+                journalIndisponible = true;
+                aJournaliser.clear();
+                return;
+            }
+        }
+        for (RequeteLente requete : lot) {
+            journal.publish(new LogRecord(Level.WARNING, requete.toString()));
+        }
+        journal.flush();
+    }
+
+    // Texte SQL sur une ligne
+    private static String normaliser(String sql) {
+        return sql == null ? "?" : sql.replaceAll("\\s+", " ").trim();
+    }
+
+    // [1='AB-123-CD', 2=42, 3=NULL]
+    private static String formaterParametres(Object[] parametres, int nombre) {
+        if (nombre == 0) {
+            return "[]";
+        }
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < nombre; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(i + 1).append('=').append(formaterValeur(parametres[i]));
+        }
+        return sb.append(']').toString();
+    }
+
+    private static String formaterValeur(Object valeur) {
+        if (valeur == null) {
+            return "NULL";
+        }
+        if (valeur instanceof byte[]) {
+            return "<" + ((byte[]) valeur).length + " octets>";
+        }
+        if (valeur instanceof InputStream || valeur instanceof Reader
+                || valeur instanceof java.sql.Blob || valeur instanceof java.sql.Clob) {
+            return "<" + valeur.getClass().getSimpleName() + ">";
+        }
+        String texte = String.valueOf(valeur);
+        if (texte.length() > LONGUEUR_MAX_VALEUR) {
+            texte = texte.substring(0, LONGUEUR_MAX_VALEUR) + "...";
+        }
+        return valeur instanceof CharSequence ? "'" + texte + "'" : texte;
+    }
+}
@@ -0,0 +1,35 @@
+package com.gestion.parking.service;
+
+import com.gestion.parking.model.Paiement;
+import com.gestion.parking.model.Ticket;
+
+// Résultat d'une sortie: ticket clôturé, paiement créé (null si gratuit) et durée de traitement
+public class ResultatSortie {
+    private final Ticket ticket;
+    private final Paiement paiement;
+    private final boolean abonne;
+    private final long dureeTraitementMs;
+    
+    public ResultatSortie(Ticket ticket, Paiement paiement, boolean abonne, long dureeTraitementMs) {
+        this.ticket = ticket;
+        this.paiement = paiement;
+        this.abonne = abonne;
+        this.dureeTraitementMs = dureeTraitementMs;
+    }
+    
+    public Ticket getTicket() {
+        return ticket;
+    }
+    
+    public Paiement getPaiement() {
+        return paiement;
+    }
+    
+    public boolean isAbonne() {
+        return abonne;
+    }
+    
+    public long getDureeTraitementMs() {
+        return dureeTraitementMs;
+    }
+}
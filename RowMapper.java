@@ -0,0 +1,10 @@
+package com.gestion.parking.dao;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+// Transformation d'une ligne de ResultSet en objet métier (réutilisable entre DAO)
+@FunctionalInterface
+public interface RowMapper<T> {
+    T mapRow(ResultSet rs) throws SQLException;
+}
@@ -0,0 +1,305 @@
+package com.gestion.parking.service;
+
+import com.gestion.parking.dao.ConfigurationBase;
+import com.gestion.parking.dao.ConnectionPool;
+import com.gestion.parking.dao.DatabaseConnection;
+import com.gestion.parking.dao.HistogrammeLatence;
+import com.gestion.parking.dao.MetriquesDAO;
+import com.gestion.parking.dao.RequetesLentes;
+import com.gestion.parking.dao.VehiculeCache;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+// Point d'accès HTTP local (serveur HTTP du JDK) exposant les métriques au format texte Prometheus:
+// bornes (passages, débit, latences), occupation, pool de connexions, cache des véhicules et accès aux données.
+// /requetes-lentes liste les instructions SQL les plus lentes depuis le démarrage (voir RequetesLentes).
+// Désactivé par défaut; parking.metriques.port=9464 l'active (adresse d'écoute: parking.metriques.adresse,
+// 127.0.0.1 par défaut). Les requêtes sont servies par un thread démon, jamais par l'EDT.
+public class ServeurMetriques {
+
+    private static final ConfigurationBase CONFIG = ConfigurationBase.get();
+    private static final int PORT = CONFIG.entier("parking.metriques.port", 0);
+    private static final String ADRESSE = CONFIG.valeur("parking.metriques.adresse", "127.0.0.1");
+    private static final String CHEMIN = "/metrics";
+    private static final String CHEMIN_LENTES = "/requetes-lentes";
+    private static final String TYPE_CONTENU = "text/plain; version=0.0.4; charset=utf-8";
+    private static final double[] QUANTILES = {0.5, 0.95, 0.99};
+
+    private static ServeurMetriques instance;
+
+    private HttpServer serveur;
+    private ExecutorService executeur;
+
+    private ServeurMetriques() {}
+
+    // Démarrer le serveur si un port est configuré (appelé une fois au lancement de l'application)
+    public static synchronized boolean demarrerSiConfigure() {
+        if (instance != null || PORT <= 0) {
+            return instance != null;
+        }
+        ServeurMetriques s = new ServeurMetriques();
+        try {
+            s.demarrer(new InetSocketAddress(ADRESSE, PORT));
+        } catch (IOException e) {
+            System.err.println("Démarrage du serveur de métriques impossible sur " + ADRESSE + ":" + PORT +
+                               ": " + e.getMessage());
+            return false;
+        }
+        instance = s;
+        return true;
+    }
+
+    public static synchronized void arreter() {
+        if (instance != null) {
+            instance.serveur.stop(0);
+            instance.executeur.shutdownNow();
+            instance = null;
+        }
+    }
+
+    private void demarrer(InetSocketAddress adresse) throws IOException {
+        serveur = HttpServer.create(adresse, 0);
+        executeur = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "serveur-metriques");
+            t.setDaemon(true);
+            return t;
+        });
+        serveur.setExecutor(executeur);
+        serveur.createContext(CHEMIN, e -> traiter(e, this::rendre));
+        serveur.createContext(CHEMIN_LENTES, e -> traiter(e, ServeurMetriques::rendreRequetesLentes));
+        serveur.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(ServeurMetriques::arreter, "serveur-metriques-arret"));
+        System.out.println("Métriques disponibles sur http://" + ADRESSE + ":" + PORT + CHEMIN);
+    }
+
+    private static void traiter(HttpExchange echange, Supplier<String> contenu) throws IOException {
+        try {
+            if (!"GET".equals(echange.getRequestMethod()) && !"HEAD".equals(echange.getRequestMethod())) {
+                repondre(echange, 405, "Méthode non autorisée\n");
+                return;
+            }
+            repondre(echange, 200, contenu.get());
+        } catch (RuntimeException e) {
+            System.err.println("Erreur lors de la génération des métriques: " + e.getMessage());
+            repondre(echange, 500, "Erreur lors de la génération des métriques\n");
+        } finally {
+            echange.close();
+        }
+    }
+
+    private static void repondre(HttpExchange echange, int statut, String corps) throws IOException {
+        byte[] octets = corps.getBytes(StandardCharsets.UTF_8);
+        echange.getResponseHeaders().set("Content-Type", TYPE_CONTENU);
+        if ("HEAD".equals(echange.getRequestMethod())) {
+            echange.sendResponseHeaders(statut, -1);
+            return;
+        }
+        echange.sendResponseHeaders(statut, octets.length);
+        try (OutputStream out = echange.getResponseBody()) {
+            out.write(octets);
+        }
+    }
+
+    // Texte complet d'une collecte
+    String rendre() {
+        StringBuilder sb = new StringBuilder(4096);
+        rendreBornes(sb);
+        rendreOccupation(sb);
+        rendrePool(sb);
+        rendreCache(sb);
+        rendreAccesDonnees(sb);
+        return sb.toString();
+    }
+
+    private void rendreBornes(StringBuilder sb) {
+        MetriquesBorne bornes = MetriquesBorne.getInstance();
+
+        entete(sb, "parking_passages_total", "counter", "Passages aux bornes depuis le démarrage, par résultat");
+        for (MetriquesBorne.Operation op : MetriquesBorne.Operation.values()) {
+            MetriquesBorne.Compteurs c = bornes.getCompteurs(op);
+            ligne(sb, "parking_passages_total", etiquettes("operation", nom(op), "resultat", "accepte"), c.getAcceptees());
+            ligne(sb, "parking_passages_total", etiquettes("operation", nom(op), "resultat", "refuse"), c.getRefusees());
+        }
+
+        entete(sb, "parking_passages_derniere_minute", "gauge", "Passages acceptés au cours des 60 dernières secondes");
+        for (MetriquesBorne.Operation op : MetriquesBorne.Operation.values()) {
+            ligne(sb, "parking_passages_derniere_minute", etiquettes("operation", nom(op)),
+                  bornes.getCompteurs(op).getDerniereMinute());
+        }
+
+        entete(sb, "parking_passage_duree_secondes", "summary", "Temps de traitement d'un passage (transaction comprise)");
+        for (MetriquesBorne.Operation op : MetriquesBorne.Operation.values()) {
+            resume(sb, "parking_passage_duree_secondes", "operation", nom(op), bornes.getCompteurs(op).getLatence());
+        }
+    }
+
+    // Total et places libres lus ensemble dans l'allocateur (même état); séries omises si la base est
+    // indisponible, plutôt qu'un parking vide publié comme une vraie valeur
+    private void rendreOccupation(StringBuilder sb) {
+        PlaceAllocator allocateur = PlaceAllocator.getInstance();
+        if (!allocateur.assurerInitialise()) {
+            return;
+        }
+        int total;
+        int libres;
+        synchronized (allocateur) {
+            total = allocateur.nombreTotal();
+            libres = allocateur.nombreLibres();
+        }
+
+        entete(sb, "parking_places", "gauge", "Places du parking, par statut");
+        ligne(sb, "parking_places", etiquettes("statut", "libre"), libres);
+        ligne(sb, "parking_places", etiquettes("statut", "occupee"), total - libres);
+
+        if (total > 0) {
+            entete(sb, "parking_occupation_ratio", "gauge", "Part des places occupées (0 à 1)");
+            ligne(sb, "parking_occupation_ratio", "", (double) (total - libres) / total);
+        }
+    }
+
+    private void rendrePool(StringBuilder sb) {
+        ConnectionPool pool = DatabaseConnection.getPool();
+
+        entete(sb, "parking_pool_connexions", "gauge", "Connexions du pool, par état");
+        ligne(sb, "parking_pool_connexions", etiquettes("etat", "empruntee"), pool.getNombreEmpruntees());
+        ligne(sb, "parking_pool_connexions", etiquettes("etat", "inactive"), pool.getNombreInactives());
+
+        entete(sb, "parking_pool_connexions_max", "gauge", "Taille maximale du pool");
+        ligne(sb, "parking_pool_connexions_max", "", pool.getTailleMax());
+
+        entete(sb, "parking_pool_attentes", "gauge", "Demandes de connexion en attente");
+        ligne(sb, "parking_pool_attentes", "", pool.getNombreEnAttente());
+
+        entete(sb, "parking_pool_attentes_expirees_total", "counter", "Demandes de connexion abandonnées faute de connexion libre");
+        ligne(sb, "parking_pool_attentes_expirees_total", "", pool.getNombreAttentesExpirees());
+    }
+
+    private void rendreCache(StringBuilder sb) {
+        VehiculeCache cache = VehiculeCache.getInstance();
+        long succes = cache.getSucces();
+        long echecs = cache.getEchecs();
+
+        entete(sb, "parking_cache_vehicules_requetes_total", "counter", "Recherches dans le cache des véhicules, par résultat");
+        ligne(sb, "parking_cache_vehicules_requetes_total", etiquettes("resultat", "succes"), succes);
+        ligne(sb, "parking_cache_vehicules_requetes_total", etiquettes("resultat", "echec"), echecs);
+
+        entete(sb, "parking_cache_vehicules_evictions_total", "counter", "Véhicules évincés du cache (taille maximale atteinte)");
+        ligne(sb, "parking_cache_vehicules_evictions_total", "", cache.getEvictions());
+
+        entete(sb, "parking_cache_vehicules_taille", "gauge", "Véhicules présents dans le cache");
+        ligne(sb, "parking_cache_vehicules_taille", "", cache.getTaille());
+
+        entete(sb, "parking_cache_vehicules_taux_succes", "gauge", "Part des recherches servies par le cache depuis le démarrage");
+        ligne(sb, "parking_cache_vehicules_taux_succes", "", succes + echecs == 0 ? 0.0 : (double) succes / (succes + echecs));
+    }
+
+    private void rendreAccesDonnees(StringBuilder sb) {
+        if (!MetriquesDAO.estActif()) {
+            return;
+        }
+        List<MetriquesDAO.Instantane> methodes = MetriquesDAO.getInstance().instantane();
+
+        entete(sb, "parking_dao_executions_total", "counter", "Instructions SQL exécutées, par méthode appelante");
+        for (MetriquesDAO.Instantane i : methodes) {
+            ligne(sb, "parking_dao_executions_total", etiquettes("methode", i.getMethode()), i.getExecutions());
+        }
+        entete(sb, "parking_dao_erreurs_total", "counter", "Instructions SQL en erreur, par méthode appelante");
+        for (MetriquesDAO.Instantane i : methodes) {
+            ligne(sb, "parking_dao_erreurs_total", etiquettes("methode", i.getMethode()), i.getErreurs());
+        }
+        entete(sb, "parking_dao_lentes_total", "counter",
+               "Instructions SQL plus longues que " + MetriquesDAO.getSeuilLenteMs() + " ms, par méthode appelante");
+        for (MetriquesDAO.Instantane i : methodes) {
+            ligne(sb, "parking_dao_lentes_total", etiquettes("methode", i.getMethode()), i.getLentes());
+        }
+        entete(sb, "parking_dao_lentes_non_journalisees_total", "counter",
+               "Instructions SQL lentes écartées du journal (file d'écriture pleine)");
+        ligne(sb, "parking_dao_lentes_non_journalisees_total", "", RequetesLentes.getInstance().getNonJournalisees());
+        entete(sb, "parking_dao_lignes_total", "counter", "Lignes lues ou modifiées, par méthode appelante");
+        for (MetriquesDAO.Instantane i : methodes) {
+            ligne(sb, "parking_dao_lignes_total", etiquettes("methode", i.getMethode()), i.getLignes());
+        }
+
+        entete(sb, "parking_dao_duree_secondes", "summary", "Durée d'exécution des instructions SQL, par méthode appelante");
+        for (MetriquesDAO.Instantane i : methodes) {
+            String m = i.getMethode();
+            ligne(sb, "parking_dao_duree_secondes", etiquettes("methode", m, "quantile", "0.5"), i.getP50Ms() / 1000.0);
+            ligne(sb, "parking_dao_duree_secondes", etiquettes("methode", m, "quantile", "0.95"), i.getP95Ms() / 1000.0);
+            ligne(sb, "parking_dao_duree_secondes", etiquettes("methode", m, "quantile", "0.99"), i.getP99Ms() / 1000.0);
+            ligne(sb, "parking_dao_duree_secondes_sum", etiquettes("methode", m), i.getTotalMs() / 1000.0);
+            ligne(sb, "parking_dao_duree_secondes_count", etiquettes("methode", m), i.getExecutions());
+        }
+
+        entete(sb, "parking_dao_attente_connexion_max_secondes", "gauge",
+               "Plus longue obtention de connexion depuis le démarrage, par méthode appelante");
+        for (MetriquesDAO.Instantane i : methodes) {
+            if (i.getAcquisitions() > 0) {
+                ligne(sb, "parking_dao_attente_connexion_max_secondes", etiquettes("methode", i.getMethode()),
+                      i.getAcquisitionMaxMs() / 1000.0);
+            }
+        }
+    }
+
+    // Une instruction par ligne, la plus lente d'abord
+    static String rendreRequetesLentes() {
+        List<RequetesLentes.RequeteLente> lentes = RequetesLentes.getInstance().getPlusLentes();
+        StringBuilder sb = new StringBuilder();
+        sb.append("Instructions SQL de plus de ").append(MetriquesDAO.getSeuilLenteMs())
+          .append(" ms depuis le démarrage (").append(lentes.size()).append("):\n");
+        for (RequetesLentes.RequeteLente r : lentes) {
+            sb.append(r).append('\n');
+        }
+        return sb.toString();
+    }
+
+    // Résumé (quantiles, somme, nombre) d'un histogramme en secondes
+    private static void resume(StringBuilder sb, String nom, String etiquette, String valeur, HistogrammeLatence h) {
+        for (double q : QUANTILES) {
+            ligne(sb, nom, etiquettes(etiquette, valeur, "quantile", String.valueOf(q)), h.percentileMs(q) / 1000.0);
+        }
+        ligne(sb, nom + "_sum", etiquettes(etiquette, valeur), h.getTotalMs() / 1000.0);
+        ligne(sb, nom + "_count", etiquettes(etiquette, valeur), h.getNombre());
+    }
+
+    private static void entete(StringBuilder sb, String nom, String type, String aide) {
+        sb.append("# HELP ").append(nom).append(' ').append(aide).append('\n');
+        sb.append("# TYPE ").append(nom).append(' ').append(type).append('\n');
+    }
+
+    private static void ligne(StringBuilder sb, String nom, String etiquettes, long valeur) {
+        sb.append(nom).append(etiquettes).append(' ').append(valeur).append('\n');
+    }
+
+    private static void ligne(StringBuilder sb, String nom, String etiquettes, double valeur) {
+        sb.append(nom).append(etiquettes).append(' ').append(Double.toString(valeur)).append('\n');
+    }
+
+    // {cle1="valeur1",cle2="valeur2"}
+    private static String etiquettes(String... clesValeurs) {
+        StringBuilder sb = new StringBuilder("{");
+        for (int i = 0; i < clesValeurs.length; i += 2) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(clesValeurs[i]).append("=\"").append(echapper(clesValeurs[i + 1])).append('"');
+        }
+        return sb.append('}').toString();
+    }
+
+    private static String echapper(String valeur) {
+        return valeur.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static String nom(MetriquesBorne.Operation op) {
+        return op.name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -82,12 +82,11 @@ public class SortieDialog extends JDialog {
             }
             
             try {
-                Ticket ticket = ticketService.enregistrerSortie(immatriculation);
+                ResultatSortie resultat = ticketService.enregistrerSortieAvecPaiement(immatriculation);
                 
-                if (ticket != null) {
-                    // Vérifier si c'est un abonné
-                    AbonneService abonneService = new AbonneService();
-                    boolean estAbonne = abonneService.estAbonneValide(immatriculation);
+                if (resultat != null) {
+                    Ticket ticket = resultat.getTicket();
+                    boolean estAbonne = resultat.isAbonne();
                     
                     String message;
                     if (estAbonne) {
@@ -5,21 +5,93 @@ import java.sql.Date;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
+import com.gestion.parking.dao.ActiviteDAO;
+import com.gestion.parking.dao.ConfigurationBase;
 import com.gestion.parking.dao.DatabaseConnection;
 import com.gestion.parking.dao.PaiementDAO;
 import com.gestion.parking.dao.PlaceDAO;
 import com.gestion.parking.dao.TicketDAO;
 import com.gestion.parking.dao.VehiculeDAO;
+import com.gestion.parking.model.Abonne;
 
 public class StatistiqueService {
+    // Pas des séries temporelles; chaque période est identifiée par son premier jour
+    public enum Granularite {
+        JOUR, SEMAINE, MOIS;
+        
+        // Premier jour de la période contenant la date (semaines commençant le lundi)
+        LocalDate debutPeriode(LocalDate date) {
+            switch (this) {
+                case SEMAINE: return date.minusDays(date.getDayOfWeek().getValue() - 1);
+                case MOIS: return date.withDayOfMonth(1);
+                default: return date;
+            }
+        }
+        
+        LocalDate periodeSuivante(LocalDate debut) {
+            switch (this) {
+                case SEMAINE: return debut.plus(1, ChronoUnit.WEEKS);
+                case MOIS: return debut.plusMonths(1);
+                default: return debut.plusDays(1);
+            }
+        }
+        
+        // Même calcul côté SQL sur une colonne DATETIME (accepté par MySQL et par H2 en mode MySQL)
+        String expressionSql(String colonne) {
+            String jour = "CAST(" + colonne + " AS DATE)";
+            switch (this) {
+                // Jours écoulés depuis le lundi 5 janvier 1970 modulo 7 (WEEKDAY n'existe pas sous H2)
+                case SEMAINE: return "TIMESTAMPADD(DAY, -MOD(TIMESTAMPDIFF(DAY, DATE '1970-01-05', " + jour + "), 7), " +
+                                     jour + ")";
+                case MOIS: return "TIMESTAMPADD(DAY, 1 - DAYOFMONTH(" + colonne + "), " + jour + ")";
+                default: return jour;
+            }
+        }
+    }
+    
+    // Durée de validité de l'instantané des indicateurs (partagé entre toutes les instances)
+    private static final long INDICATEURS_TTL_MS = ConfigurationBase.get().entierLong("parking.stats.indicateursTtlMs", 5000L);
+    
+    // Chiffre d'affaires sur [début, fin[: tickets clôturés dans l'intervalle,
+    // abonnements souscrits dans l'intervalle (mois complets x prix mensuel, comme Abonne.getMontantTotal)
+    private static final String SQL_CA_TICKETS =
+        "SELECT COALESCE(SUM(t.montant), 0) FROM Ticket t " +
+        "WHERE t.sortie >= ? AND t.sortie < ? AND t.montant IS NOT NULL";
+    private static final String SQL_CA_ABONNEMENTS =
+        "SELECT COALESCE(SUM(TIMESTAMPDIFF(MONTH, a.dateDebut, a.dateFin)), 0) * ? FROM Abonne a " +
+        "WHERE a.dateDebut >= ? AND a.dateDebut < ? AND a.dateFin IS NOT NULL";
+    
+    // Tous les indicateurs du tableau de bord en une requête: un seul passage sur Place,
+    // sous-requêtes scalaires pour les abonnés valides, les tickets en cours et le CA du jour
+    private static final String SQL_INDICATEURS =
+        "SELECT p.total_places, p.places_occupees, p.places_libres, " +
+        "(SELECT COUNT(*) FROM Abonne a WHERE a.dateDebut <= CURDATE() AND a.dateFin >= CURDATE()) AS abonnes_valides, " +
+        "(SELECT COUNT(*) FROM Ticket t WHERE t.sortie IS NULL) AS tickets_en_cours, " +
+        "(" + SQL_CA_TICKETS + ") AS ca_tickets_jour, " +
+        "(" + SQL_CA_ABONNEMENTS + ") AS ca_abonnements_jour " +
+        "FROM (SELECT COUNT(*) AS total_places, " +
+        "      COALESCE(SUM(statut = 'OCCUPEE'), 0) AS places_occupees, " +
+        "      COALESCE(SUM(statut = 'LIBRE'), 0) AS places_libres " +
+        "      FROM Place) p";
+    
+    private static final Object verrouIndicateurs = new Object();
+    private static IndicateursDashboard indicateursEnCache;
+    private static long indicateursExpiration = 0;
+    
     private TicketDAO ticketDAO;
     private PaiementDAO paiementDAO;
     private PlaceDAO placeDAO;
     private VehiculeDAO vehiculeDAO;
+    private ActiviteDAO activiteDAO;
     private TicketService ticketService;
     private PlaceService placeService;
     
@@ -28,10 +100,81 @@ public class StatistiqueService {
         this.paiementDAO = new PaiementDAO();
         this.placeDAO = new PlaceDAO();
         this.vehiculeDAO = new VehiculeDAO();
+        this.activiteDAO = new ActiviteDAO();
         this.ticketService = new TicketService();
         this.placeService = new PlaceService();
     }
     
+    // Indicateurs du tableau de bord, servis depuis le cache tant qu'ils ont moins de INDICATEURS_TTL_MS
+    public IndicateursDashboard obtenirIndicateurs() {
+        synchronized (verrouIndicateurs) {
+            long maintenant = System.currentTimeMillis();
+            if (indicateursEnCache != null && maintenant < indicateursExpiration) {
+                return indicateursEnCache;
+            }
+            
+            try {
+                indicateursEnCache = lireIndicateurs();
+                indicateursExpiration = maintenant + INDICATEURS_TTL_MS;
+            } catch (SQLException e) {
+                System.err.println("Erreur lors de la lecture des indicateurs: " + e.getMessage());
+                if (indicateursEnCache == null) {
+                    // Rien à servir: instantané vide, non mis en cache
+                    return new IndicateursDashboard(0, 0, 0, 0, 0, 0.0, 0.0, LocalDateTime.now());
+                }
+            }
+            return indicateursEnCache;
+        }
+    }
+    
+    private IndicateursDashboard lireIndicateurs() throws SQLException {
+        LocalDate aujourdhui = LocalDate.now();
+        
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SQL_INDICATEURS)) {
+            
+            stmt.setTimestamp(1, Timestamp.valueOf(aujourdhui.atStartOfDay()));
+            stmt.setTimestamp(2, Timestamp.valueOf(aujourdhui.plusDays(1).atStartOfDay()));
+            stmt.setDouble(3, Abonne.getPrixMensuel());
+            stmt.setDate(4, Date.valueOf(aujourdhui));
+            stmt.setDate(5, Date.valueOf(aujourdhui.plusDays(1)));
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                rs.next();
+                return new IndicateursDashboard(
+                    rs.getInt("total_places"),
+                    rs.getInt("places_occupees"),
+                    rs.getInt("places_libres"),
+                    rs.getInt("abonnes_valides"),
+                    rs.getInt("tickets_en_cours"),
+                    rs.getDouble("ca_tickets_jour"),
+                    rs.getDouble("ca_abonnements_jour"),
+                    LocalDateTime.now()
+                );
+            }
+        }
+    }
+    
+    // Fil d'activité d'une journée (entrées, sorties, abonnements), les plus récentes d'abord
+    public List<ActiviteDAO.Activite> listerActivitesDuJour(LocalDate jour, int limite) {
+        try {
+            return activiteDAO.findDuJour(jour, Abonne.getPrixMensuel(), limite);
+        } catch (SQLException e) {
+            System.err.println("Erreur lors de la lecture des activités du jour: " + e.getMessage());
+            return null;
+        }
+    }
+    
+    // Nouvelles activités depuis un horodatage (inclus), pour les rafraîchissements incrémentaux
+    public List<ActiviteDAO.Activite> listerActivitesDepuis(LocalDateTime depuis, int limite) {
+        try {
+            return activiteDAO.findDepuis(depuis, Abonne.getPrixMensuel(), limite);
+        } catch (SQLException e) {
+            System.err.println("Erreur lors de la lecture des nouvelles activités: " + e.getMessage());
+            return null;
+        }
+    }
+    
     // Obtenir le chiffre d'affaires pour une période
     public double obtenirChiffreAffaires(LocalDate dateDebut, LocalDate dateFin) {
         try {
@@ -48,31 +191,43 @@ public class StatistiqueService {
     
     // Obtenir le chiffre d'affaires du jour depuis les tickets
     public double obtenirChiffreAffairesDuJour() {
-        try {
-            LocalDate aujourdhui = LocalDate.now();
+        LocalDate aujourdhui = LocalDate.now();
+        return obtenirChiffreAffairesTickets(aujourdhui, aujourdhui.plusDays(1));
+    }
+    
+    // Chiffre d'affaires des tickets clôturés sur [début, fin[
+    public double obtenirChiffreAffairesTickets(LocalDate debut, LocalDate finExclue) {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SQL_CA_TICKETS)) {
             
-            String sql = "SELECT COALESCE(SUM(t.montant), 0) as total " +
-                        "FROM Ticket t " +
-                        "WHERE t.sortie IS NOT NULL " +
-                        "AND DATE(t.sortie) = ? " +
-                        "AND t.montant IS NOT NULL";
+            stmt.setTimestamp(1, Timestamp.valueOf(debut.atStartOfDay()));
+            stmt.setTimestamp(2, Timestamp.valueOf(finExclue.atStartOfDay()));
             
-            try (Connection conn = DatabaseConnection.getConnection();
-                 PreparedStatement stmt = conn.prepareStatement(sql)) {
-                
-                stmt.setDate(1, Date.valueOf(aujourdhui));
-                
-                try (ResultSet rs = stmt.executeQuery()) {
-                    if (rs.next()) {
-                        return rs.getDouble("total");
-                    }
-                }
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getDouble(1) : 0.0;
             }
         } catch (SQLException e) {
-            System.err.println("Erreur dans obtenirChiffreAffairesDuJour: " + e.getMessage());
+            System.err.println("Erreur dans obtenirChiffreAffairesTickets: " + e.getMessage());
+            return 0.0;
+        }
+    }
+    
+    // Chiffre d'affaires des abonnements souscrits sur [début, fin[
+    public double obtenirChiffreAffairesAbonnements(LocalDate debut, LocalDate finExclue) {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SQL_CA_ABONNEMENTS)) {
+            
+            stmt.setDouble(1, Abonne.getPrixMensuel());
+            stmt.setDate(2, Date.valueOf(debut));
+            stmt.setDate(3, Date.valueOf(finExclue));
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getDouble(1) : 0.0;
+            }
+        } catch (SQLException e) {
+            System.err.println("Erreur dans obtenirChiffreAffairesAbonnements: " + e.getMessage());
+            return 0.0;
         }
-        
-        return 0.0;
     }
     
     // Obtenir le chiffre d'affaires du mois
@@ -175,23 +330,78 @@ public class StatistiqueService {
         }
     }
     
-    // Obtenir les statistiques journalières
+    // Obtenir les statistiques journalières (entrées par jour sur les n derniers jours, du plus ancien au plus récent)
     public Map<LocalDate, Integer> obtenirStatistiquesJournalieres(int nombreJours) {
-        Map<LocalDate, Integer> statistiques = new HashMap<>();
+        LocalDate aujourdhui = LocalDate.now();
+        return obtenirSerieEntrees(aujourdhui.minusDays(nombreJours - 1), aujourdhui, Granularite.JOUR);
+    }
+    
+    // Séries temporelles sur [dateDebut, dateFin] (dates incluses): une requête GROUP BY par série,
+    // résultat ordonné avec une valeur (0 par défaut) pour chaque période, null en cas d'erreur
+    public Map<LocalDate, Integer> obtenirSerieEntrees(LocalDate dateDebut, LocalDate dateFin, Granularite granularite) {
+        return versEntiers(lireSerie("COUNT(*)", "t.entree", "", dateDebut, dateFin, granularite));
+    }
+    
+    public Map<LocalDate, Integer> obtenirSerieSorties(LocalDate dateDebut, LocalDate dateFin, Granularite granularite) {
+        return versEntiers(lireSerie("COUNT(*)", "t.sortie", "", dateDebut, dateFin, granularite));
+    }
+    
+    public Map<LocalDate, Double> obtenirSerieChiffreAffaires(LocalDate dateDebut, LocalDate dateFin, Granularite granularite) {
+        return lireSerie("COALESCE(SUM(t.montant), 0)", "t.sortie", " AND t.montant IS NOT NULL",
+            dateDebut, dateFin, granularite);
+    }
+    
+    // Durée moyenne en minutes des tickets clôturés, par période d'entrée
+    public Map<LocalDate, Double> obtenirSerieDureeMoyenne(LocalDate dateDebut, LocalDate dateFin, Granularite granularite) {
+        return lireSerie("AVG(TIMESTAMPDIFF(MINUTE, t.entree, t.sortie))", "t.entree", " AND t.sortie IS NOT NULL",
+            dateDebut, dateFin, granularite);
+    }
+    
+    private Map<LocalDate, Double> lireSerie(String agregat, String colonneDate, String filtre,
+                                             LocalDate dateDebut, LocalDate dateFin, Granularite granularite) {
+        // Toutes les périodes qui recoupent l'intervalle sont présentes dans le résultat
+        LocalDate premiere = granularite.debutPeriode(dateDebut);
+        Map<LocalDate, Double> serie = new LinkedHashMap<>();
+        LocalDate periode = premiere;
+        while (!periode.isAfter(dateFin)) {
+            serie.put(periode, 0.0);
+            periode = granularite.periodeSuivante(periode);
+        }
         
-        try {
-            LocalDate aujourdhui = LocalDate.now();
+        String expressionPeriode = granularite.expressionSql(colonneDate);
+        String sql = "SELECT " + expressionPeriode + " AS periode, " + agregat + " AS valeur " +
+                     "FROM Ticket t " +
+                     "WHERE " + colonneDate + " >= ? AND " + colonneDate + " < ?" + filtre + " " +
+                     "GROUP BY " + expressionPeriode;
+        
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            // Bornes exactes: la première et la dernière période peuvent être partielles
+            stmt.setTimestamp(1, Timestamp.valueOf(dateDebut.atStartOfDay()));
+            stmt.setTimestamp(2, Timestamp.valueOf(dateFin.plusDays(1).atStartOfDay()));
             
-            for (int i = nombreJours - 1; i >= 0; i--) {
-                LocalDate date = aujourdhui.minusDays(i);
-                int nombreEntrees = obtenirNombreEntrees(date, date);
-                statistiques.put(date, nombreEntrees);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    serie.put(rs.getDate("periode").toLocalDate(), rs.getDouble("valeur"));
+                }
             }
-        } catch (Exception e) {
-            System.err.println("Erreur lors de l'obtention des statistiques journalières: " + e.getMessage());
+            return serie;
+        } catch (SQLException e) {
+            System.err.println("Erreur lors du calcul de la série temporelle: " + e.getMessage());
+            return null;
         }
-        
-        return statistiques;
+    }
+    
+    private Map<LocalDate, Integer> versEntiers(Map<LocalDate, Double> serie) {
+        if (serie == null) {
+            return null;
+        }
+        Map<LocalDate, Integer> resultat = new LinkedHashMap<>();
+        for (Map.Entry<LocalDate, Double> entree : serie.entrySet()) {
+            resultat.put(entree.getKey(), entree.getValue().intValue());
+        }
+        return resultat;
     }
     
     // Obtenir le revenu moyen par véhicule
@@ -213,15 +423,15 @@ public class StatistiqueService {
         try {
             String sql = "SELECT HOUR(entree) as heure, COUNT(*) as nombre " +
                         "FROM Ticket " +
-                        "WHERE DATE(entree) BETWEEN ? AND ? " +
+                        "WHERE entree >= ? AND entree < ? " +
                         "GROUP BY HOUR(entree) " +
                         "ORDER BY HOUR(entree)";
             
             try (Connection conn = DatabaseConnection.getConnection();
                  PreparedStatement stmt = conn.prepareStatement(sql)) {
                 
-                stmt.setDate(1, Date.valueOf(dateDebut));
-                stmt.setDate(2, Date.valueOf(dateFin));
+                stmt.setTimestamp(1, Timestamp.valueOf(dateDebut.atStartOfDay()));
+                stmt.setTimestamp(2, Timestamp.valueOf(dateFin.plusDays(1).atStartOfDay()));
                 
                 try (ResultSet rs = stmt.executeQuery()) {
                     while (rs.next()) {
@@ -243,13 +453,13 @@ public class StatistiqueService {
                         "FROM Ticket " +
                         "WHERE entree IS NOT NULL " +
                         "AND sortie IS NOT NULL " +
-                        "AND DATE(entree) BETWEEN ? AND ?";
+                        "AND entree >= ? AND entree < ?";
             
             try (Connection conn = DatabaseConnection.getConnection();
                  PreparedStatement stmt = conn.prepareStatement(sql)) {
                 
-                stmt.setDate(1, Date.valueOf(dateDebut));
-                stmt.setDate(2, Date.valueOf(dateFin));
+                stmt.setTimestamp(1, Timestamp.valueOf(dateDebut.atStartOfDay()));
+                stmt.setTimestamp(2, Timestamp.valueOf(dateFin.plusDays(1).atStartOfDay()));
                 
                 try (ResultSet rs = stmt.executeQuery()) {
                     if (rs.next()) {
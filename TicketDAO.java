@@ -10,15 +10,29 @@ import java.util.List;
 
 public class TicketDAO {
     
-    private VehiculeDAO vehiculeDAO = new VehiculeDAO();
-    private PlaceDAO placeDAO = new PlaceDAO();
+    // Projection Ticket + Place + Vehicule en une seule requête (évite les N+1 findById)
+    static final String JOINTURES_PLACE_VEHICULE =
+        "LEFT JOIN Place p ON p.id = t.place_id " +
+        "LEFT JOIN Vehicule v ON v.id = t.vehicule_id";
+    
+    static final String COLONNES_JOINTURE = colonnesJointure("");
+    
+    static final String FROM_JOINTURE = "FROM Ticket t " + JOINTURES_PLACE_VEHICULE;
+    
+    private static final String SELECT_JOINTURE = "SELECT " + COLONNES_JOINTURE + " " + FROM_JOINTURE;
     
     // Créer un ticket
     public int create(Ticket ticket) throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            return create(conn, ticket);
+        }
+    }
+    
+    // Créer un ticket sur une connexion existante (transaction de l'appelant)
+    public int create(Connection conn, Ticket ticket) throws SQLException {
         String sql = "INSERT INTO Ticket (place_id, vehicule_id, entree, sortie, montant) VALUES (?, ?, ?, ?, ?)";
         
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+        try (PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             
             stmt.setInt(1, ticket.getPlace().getId());
             stmt.setInt(2, ticket.getVehicule().getId());
@@ -49,7 +63,7 @@ public class TicketDAO {
     
     // Trouver par ID
     public Ticket findById(int id) throws SQLException {
-        String sql = "SELECT t.* FROM Ticket t WHERE t.id = ?";
+        String sql = SELECT_JOINTURE + " WHERE t.id = ?";
         
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -68,7 +82,7 @@ public class TicketDAO {
     // Trouver les tickets en cours (sans date de sortie)
     public List<Ticket> findTicketsEnCours() throws SQLException {
         List<Ticket> tickets = new ArrayList<>();
-        String sql = "SELECT t.* FROM Ticket t WHERE t.sortie IS NULL ORDER BY t.entree DESC";
+        String sql = SELECT_JOINTURE + " WHERE t.sortie IS NULL ORDER BY t.entree DESC";
         
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql);
@@ -83,7 +97,7 @@ public class TicketDAO {
     
     // Trouver le ticket en cours d'un véhicule
     public Ticket findTicketEnCoursByVehicule(int vehiculeId) throws SQLException {
-        String sql = "SELECT t.* FROM Ticket t WHERE t.vehicule_id = ? AND t.sortie IS NULL";
+        String sql = SELECT_JOINTURE + " WHERE t.vehicule_id = ? AND t.sortie IS NULL";
         
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -102,12 +116,14 @@ public class TicketDAO {
     // Trouver les tickets par date d'entrée
     public List<Ticket> findTicketsByDateEntree(LocalDateTime date) throws SQLException {
         List<Ticket> tickets = new ArrayList<>();
-        String sql = "SELECT t.* FROM Ticket t WHERE DATE(t.entree) = DATE(?) ORDER BY t.entree DESC";
+        String sql = SELECT_JOINTURE + " WHERE t.entree >= ? AND t.entree < ? ORDER BY t.entree DESC";
         
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
-            stmt.setTimestamp(1, Timestamp.valueOf(date));
+            // Journée de 'date' en intervalle semi-ouvert (utilisable par l'index sur Ticket.entree)
+            stmt.setTimestamp(1, Timestamp.valueOf(date.toLocalDate().atStartOfDay()));
+            stmt.setTimestamp(2, Timestamp.valueOf(date.toLocalDate().plusDays(1).atStartOfDay()));
             
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
@@ -121,7 +137,7 @@ public class TicketDAO {
     // Trouver les tickets par véhicule
     public List<Ticket> findTicketsByVehicule(int vehiculeId) throws SQLException {
         List<Ticket> tickets = new ArrayList<>();
-        String sql = "SELECT t.* FROM Ticket t WHERE t.vehicule_id = ? ORDER BY t.entree DESC";
+        String sql = SELECT_JOINTURE + " WHERE t.vehicule_id = ? ORDER BY t.entree DESC";
         
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -140,7 +156,7 @@ public class TicketDAO {
     // Trouver les tickets par place
     public List<Ticket> findTicketsByPlace(int placeId) throws SQLException {
         List<Ticket> tickets = new ArrayList<>();
-        String sql = "SELECT t.* FROM Ticket t WHERE t.place_id = ? ORDER BY t.entree DESC";
+        String sql = SELECT_JOINTURE + " WHERE t.place_id = ? ORDER BY t.entree DESC";
         
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -171,6 +187,19 @@ public class TicketDAO {
         }
     }
     
+    // Clôturer un ticket encore ouvert sur une connexion existante (false s'il était déjà clôturé)
+    public boolean cloturer(Connection conn, int ticketId, LocalDateTime sortie, double montant) throws SQLException {
+        String sql = "UPDATE Ticket SET sortie = ?, montant = ? WHERE id = ? AND sortie IS NULL";
+        
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setTimestamp(1, Timestamp.valueOf(sortie));
+            stmt.setDouble(2, montant);
+            stmt.setInt(3, ticketId);
+            
+            return stmt.executeUpdate() > 0;
+        }
+    }
+    
     // Mettre à jour un ticket
     public boolean update(Ticket ticket) throws SQLException {
         String sql = "UPDATE Ticket SET place_id = ?, vehicule_id = ?, entree = ?, sortie = ?, montant = ? WHERE id = ?";
@@ -199,7 +228,7 @@ public class TicketDAO {
     // Lister tous les tickets
     public List<Ticket> findAll() throws SQLException {
         List<Ticket> tickets = new ArrayList<>();
-        String sql = "SELECT t.* FROM Ticket t ORDER BY t.entree DESC";
+        String sql = SELECT_JOINTURE + " ORDER BY t.entree DESC";
         
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql);
@@ -212,15 +241,70 @@ public class TicketDAO {
         return tickets;
     }
     
-    // Calculer le chiffre d'affaires entre deux dates
+    // Page de tickets triés par (entree, id) décroissants, pagination par clé:
+    // "dernier" est le dernier ticket de la page précédente (null pour la première page)
+    public List<Ticket> findPage(FiltreTickets filtre, Ticket dernier, int taille) throws SQLException {
+        List<Ticket> tickets = new ArrayList<>();
+        List<Object> parametres = new ArrayList<>();
+        StringBuilder sql = new StringBuilder(SELECT_JOINTURE).append(" WHERE 1 = 1");
+        
+        if (filtre != null) {
+            if (filtre.getStatut() == FiltreTickets.Statut.EN_COURS) {
+                sql.append(" AND t.sortie IS NULL");
+            } else if (filtre.getStatut() == FiltreTickets.Statut.TERMINE) {
+                sql.append(" AND t.sortie IS NOT NULL");
+            }
+            if (filtre.getEntreeDebut() != null) {
+                sql.append(" AND t.entree >= ?");
+                parametres.add(Timestamp.valueOf(filtre.getEntreeDebut()));
+            }
+            if (filtre.getEntreeFin() != null) {
+                sql.append(" AND t.entree < ?");
+                parametres.add(Timestamp.valueOf(filtre.getEntreeFin()));
+            }
+            if (filtre.getImmatriculation() != null && !filtre.getImmatriculation().trim().isEmpty()) {
+                sql.append(" AND v.immatriculation = ?");
+                parametres.add(filtre.getImmatriculation().trim().toUpperCase());
+            }
+        }
+        
+        if (dernier != null) {
+            Timestamp entree = Timestamp.valueOf(dernier.getEntree());
+            sql.append(" AND (t.entree < ? OR (t.entree = ? AND t.id < ?))");
+            parametres.add(entree);
+            parametres.add(entree);
+            parametres.add(dernier.getId());
+        }
+        
+        sql.append(" ORDER BY t.entree DESC, t.id DESC LIMIT ?");
+        parametres.add(taille);
+        
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+            
+            for (int i = 0; i < parametres.size(); i++) {
+                stmt.setObject(i + 1, parametres.get(i));
+            }
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    tickets.add(mapResultSetToTicket(rs));
+                }
+            }
+        }
+        return tickets;
+    }
+    
+    // Calculer le chiffre d'affaires entre deux dates (incluses)
     public double calculerChiffreAffaires(Date dateDebut, Date dateFin) throws SQLException {
-        String sql = "SELECT SUM(montant) FROM Ticket WHERE entree >= ? AND entree <= ? AND montant > 0";
+        String sql = "SELECT SUM(montant) FROM Ticket WHERE entree >= ? AND entree < ? AND montant > 0";
         
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
-            stmt.setDate(1, dateDebut);
-            stmt.setDate(2, dateFin);
+            // [dateDebut 00:00, lendemain de dateFin 00:00[: le dernier jour est compté en entier
+            stmt.setTimestamp(1, Timestamp.valueOf(dateDebut.toLocalDate().atStartOfDay()));
+            stmt.setTimestamp(2, Timestamp.valueOf(dateFin.toLocalDate().plusDays(1).atStartOfDay()));
             
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
@@ -247,29 +331,99 @@ public class TicketDAO {
         return 0;
     }
     
-    // Méthode utilitaire pour mapper ResultSet -> Ticket
+    // Sondes d'existence et de comptage: répondues par les index (vehicule_id, place_id),
+    // sans jointure ni construction de Ticket
+    
+    // Le véhicule a-t-il au moins un ticket (en cours ou clôturé) ?
+    public boolean existsByVehicule(int vehiculeId) throws SQLException {
+        return existe("SELECT EXISTS(SELECT 1 FROM Ticket WHERE vehicule_id = ?)", vehiculeId);
+    }
+    
+    // Le véhicule a-t-il un ticket en cours ?
+    public boolean existsTicketEnCoursByVehicule(int vehiculeId) throws SQLException {
+        return existe("SELECT EXISTS(SELECT 1 FROM Ticket WHERE vehicule_id = ? AND sortie IS NULL)", vehiculeId);
+    }
+    
+    // Nombre de tickets (en cours et clôturés) du véhicule
+    public int countByVehicule(int vehiculeId) throws SQLException {
+        return compter("SELECT COUNT(*) FROM Ticket WHERE vehicule_id = ?", vehiculeId);
+    }
+    
+    // La place a-t-elle au moins un ticket (en cours ou clôturé) ?
+    public boolean existsByPlace(int placeId) throws SQLException {
+        return existe("SELECT EXISTS(SELECT 1 FROM Ticket WHERE place_id = ?)", placeId);
+    }
+    
+    // La place a-t-elle un ticket en cours ?
+    public boolean existsTicketEnCoursByPlace(int placeId) throws SQLException {
+        return existe("SELECT EXISTS(SELECT 1 FROM Ticket WHERE place_id = ? AND sortie IS NULL)", placeId);
+    }
+    
+    // Nombre de tickets (en cours et clôturés) de la place
+    public int countByPlace(int placeId) throws SQLException {
+        return compter("SELECT COUNT(*) FROM Ticket WHERE place_id = ?", placeId);
+    }
+    
+    private boolean existe(String sql, int id) throws SQLException {
+        return compter(sql, id) > 0;
+    }
+    
+    private int compter(String sql, int id) throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            stmt.setInt(1, id);
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getInt(1);
+                }
+            }
+        }
+        return 0;
+    }
+    
+    // Colonnes Ticket (préfixées) + Place + Vehicule, lues par mapper(prefixe)
+    static String colonnesJointure(String prefixe) {
+        return "t.id AS " + prefixe + "id, t.entree AS " + prefixe + "entree, " +
+               "t.sortie AS " + prefixe + "sortie, t.montant AS " + prefixe + "montant, " +
+               "p.id AS place_id, p.numero AS place_numero, p.statut AS place_statut, " +
+               "v.id AS vehicule_id, v.immatriculation AS vehicule_immatriculation, " +
+               "v.proprietaire AS vehicule_proprietaire";
+    }
+    
+    // Méthode utilitaire pour mapper ResultSet -> Ticket (colonnes de SELECT_JOINTURE)
     private Ticket mapResultSetToTicket(ResultSet rs) throws SQLException {
-        Ticket ticket = new Ticket();
-        ticket.setId(rs.getInt("id"));
-        
-        // Récupérer la place
-        int placeId = rs.getInt("place_id");
-        Place place = placeDAO.findById(placeId);
-        ticket.setPlace(place);
-        
-        // Récupérer le véhicule
-        int vehiculeId = rs.getInt("vehicule_id");
-        Vehicule vehicule = vehiculeDAO.findById(vehiculeId);
-        ticket.setVehicule(vehicule);
-        
-        Timestamp entree = rs.getTimestamp("entree");
-        Timestamp sortie = rs.getTimestamp("sortie");
-        
-        ticket.setEntree(entree != null ? entree.toLocalDateTime() : null);
-        ticket.setSortie(sortie != null ? sortie.toLocalDateTime() : null);
-        
-        ticket.setMontant(rs.getDouble("montant"));
+        return MAPPER.mapRow(rs);
+    }
+    
+    // Mapper Ticket + Place + Vehicule à partir des colonnes de COLONNES_JOINTURE
+    static final RowMapper<Ticket> MAPPER = mapper("");
+    
+    // Les colonnes du ticket peuvent être préfixées (ex: "ticket_") lorsqu'il est lui-même joint
+    static RowMapper<Ticket> mapper(String prefixe) {
+        RowMapper<Place> placeMapper = PlaceDAO.mapper("place_");
+        RowMapper<Vehicule> vehiculeMapper = VehiculeDAO.mapper("vehicule_");
         
-        return ticket;
+        return rs -> {
+            int id = rs.getInt(prefixe + "id");
+            if (rs.wasNull()) {
+                return null;
+            }
+            Ticket ticket = new Ticket();
+            ticket.setId(id);
+            ticket.setPlace(placeMapper.mapRow(rs));
+            ticket.setVehicule(vehiculeMapper.mapRow(rs));
+            
+            Timestamp entree = rs.getTimestamp(prefixe + "entree");
+            Timestamp sortie = rs.getTimestamp(prefixe + "sortie");
+            
+            ticket.setEntree(entree != null ? entree.toLocalDateTime() : null);
+            ticket.setSortie(sortie != null ? sortie.toLocalDateTime() : null);
+            
+            ticket.setMontant(rs.getDouble(prefixe + "montant"));
+            
+            return ticket;
+        };
     }
 }
\ No newline at end of file
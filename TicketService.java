@@ -9,7 +9,11 @@ import java.util.List;
 import java.util.UUID;
 
 import com.gestion.parking.dao.AbonneDAO;
+import com.gestion.parking.dao.ConfigurationBase;
 import com.gestion.parking.dao.DatabaseConnection;
+import com.gestion.parking.dao.FiltreTickets;
+import com.gestion.parking.dao.PaiementDAO;
+import com.gestion.parking.dao.PassageDAO;
 import com.gestion.parking.dao.PlaceDAO;
 import com.gestion.parking.dao.TicketDAO;
 import com.gestion.parking.dao.VehiculeDAO;
@@ -25,6 +29,8 @@ public class TicketService {
     private VehiculeDAO vehiculeDAO;
     private PlaceDAO placeDAO;
     private AbonneDAO abonneDAO;
+    private PassageDAO passageDAO;
+    private PaiementDAO paiementDAO;
     private VehiculeService vehiculeService;
     private PlaceService placeService;
     private AbonneService abonneService;
@@ -32,11 +38,19 @@ public class TicketService {
     // Tarifs (à configurer)
     private static final double TARIF_HORAIRE_VOITURE = 5.0;
     
+    // Objectif de temps de traitement d'une sortie (au-delà, la sortie est signalée dans les logs)
+    private static final long OBJECTIF_LATENCE_SORTIE_MS = ConfigurationBase.get().entierLong("parking.sortie.objectifMs", 150L);
+    
+    // Nombre de places candidates essayées avant d'abandonner une entrée
+    private static final int MAX_TENTATIVES_RESERVATION = 5;
+    
     public TicketService() {
         this.ticketDAO = new TicketDAO();
         this.vehiculeDAO = new VehiculeDAO();
         this.placeDAO = new PlaceDAO();
         this.abonneDAO = new AbonneDAO();
+        this.passageDAO = new PassageDAO();
+        this.paiementDAO = new PaiementDAO();
         this.vehiculeService = new VehiculeService();
         this.placeService = new PlaceService();
         this.abonneService = new AbonneService();
@@ -48,155 +62,177 @@ public class TicketService {
                + "-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
     }
     
-    // Enregistrer une entrée
+    // Enregistrer une entrée: une seule connexion, une seule transaction
+    // (lecture de l'état du véhicule, réservation conditionnelle de la place, création du ticket)
     public Ticket enregistrerEntree(String immatriculation) {
+        long debut = System.nanoTime();
+        Connection conn = null;
+        Place placeReservee = null;
+        boolean acceptee = false;
+        
         try {
-            // Vérifier si le véhicule est déjà dans le parking
-            if (estDansParking(immatriculation)) {
-                throw new IllegalStateException("Ce véhicule est déjà dans le parking");
-            }
-            
-            // Vérifier si une place est disponible
-            Place place = placeService.trouverPlaceLibre();
-            if (place == null) {
-                throw new IllegalStateException("Aucune place disponible");
-            }
+            conn = DatabaseConnection.getConnection();
+            conn.setAutoCommit(false);
             
-            // Trouver ou créer le véhicule
-            Vehicule vehicule = vehiculeService.trouverVehiculeParImmatriculation(immatriculation);
-            if (vehicule == null) {
+            // Véhicule, présence dans le parking et abonnement en une requête
+            PassageDAO.EtatPassage etat = passageDAO.lireEtat(conn, immatriculation.toUpperCase());
+            if (etat == null) {
                 throw new IllegalArgumentException("Véhicule non enregistré. Veuillez d'abord enregistrer le véhicule");
             }
             
-            // Vérifier si le véhicule est abonné
-            boolean estAbonne = abonneService.estAbonneValide(immatriculation);
+            if (etat.isDansParking()) {
+                throw new IllegalStateException("Ce véhicule est déjà dans le parking");
+            }
             
-            // Occuper la place
-            placeService.occuperPlace(place.getId());
+            // Réserver une place (UPDATE conditionnel: deux bornes ne peuvent pas obtenir la même place)
+            placeReservee = reserverPlace(conn);
+            if (placeReservee == null) {
+                throw new IllegalStateException("Aucune place disponible");
+            }
             
-            // Créer le ticket
+            // Créer le ticket (montant calculé à la sortie, 0 pour les abonnés)
             Ticket ticket = new Ticket();
-            ticket.setPlace(place);
-            ticket.setVehicule(vehicule);
+            ticket.setPlace(placeReservee);
+            ticket.setVehicule(etat.getVehicule());
             ticket.setEntree(LocalDateTime.now());
             ticket.setSortie(null);
-            ticket.setMontant(0.0); // À calculer à la sortie
+            ticket.setMontant(0.0);
             
-            // Si c'est un abonné, le montant reste à 0
-            if (estAbonne) {
-                ticket.setMontant(0.0);
-            }
-            
-            ticketDAO.create(ticket);
+            ticketDAO.create(conn, ticket);
+            conn.commit();
+            acceptee = true;
             return ticket;
             
         } catch (Exception e) {
+            annulerTransaction(conn);
+            if (placeReservee != null) {
+                PlaceAllocator.getInstance().marquerLibre(placeReservee.getId());
+            }
             System.err.println("Erreur lors de l'enregistrement de l'entrée: " + e.getMessage());
             return null;
+        } finally {
+            DatabaseConnection.closeConnection(conn);
+            MetriquesBorne.getInstance().enregistrer(MetriquesBorne.Operation.ENTREE,
+                                                     System.nanoTime() - debut, acceptee);
         }
     }
     
- // Enregistrer une sortie
-    public Ticket enregistrerSortie(String immatriculation) {
-        try {
-            // Vérifier si le véhicule est dans le parking
-            if (!estDansParking(immatriculation)) {
-                throw new IllegalArgumentException("Ce véhicule n'est pas dans le parking");
+    // Réserver une place libre sur la connexion transactionnelle
+    private Place reserverPlace(Connection conn) throws SQLException {
+        PlaceAllocator allocateur = PlaceAllocator.getInstance();
+        
+        // Candidats proposés par l'allocateur en mémoire
+        if (allocateur.assurerInitialise()) {
+            for (int i = 0; i < MAX_TENTATIVES_RESERVATION; i++) {
+                Place candidate = allocateur.reserver();
+                if (candidate == null) {
+                    // Vue locale possiblement en retard (place libérée par un autre poste): la base tranche
+                    break;
+                }
+                
+                try {
+                    if (placeDAO.occuperSiLibre(conn, candidate.getId())) {
+                        return candidate;
+                    }
+                    // Occupée entre-temps par un autre poste: elle reste marquée occupée localement
+                } catch (SQLException e) {
+                    allocateur.marquerLibre(candidate.getId());
+                    throw e;
+                }
             }
-            
-            // Trouver le véhicule
-            Vehicule vehicule = vehiculeService.trouverVehiculeParImmatriculation(immatriculation);
-            if (vehicule == null) {
-                throw new IllegalArgumentException("Véhicule non trouvé");
+        }
+        
+        // Repli: première place libre verrouillée et réservée en base
+        Place place = placeDAO.occuperPremiereLibre(conn);
+        if (place != null) {
+            allocateur.marquerOccupee(place.getId());
+        }
+        return place;
+    }
+    
+    // Annuler la transaction en cours (sans masquer l'erreur d'origine)
+    private void annulerTransaction(Connection conn) {
+        if (conn != null) {
+            try {
+                conn.rollback();
+            } catch (SQLException e) {
+                System.err.println("Erreur lors de l'annulation de la transaction: " + e.getMessage());
             }
+        }
+    }
+    
+    // Enregistrer une sortie
+    public Ticket enregistrerSortie(String immatriculation) {
+        ResultatSortie resultat = enregistrerSortieAvecPaiement(immatriculation);
+        return resultat != null ? resultat.getTicket() : null;
+    }
+    
+    // Enregistrer une sortie: clôture du ticket, libération de la place et paiement
+    // sur une seule connexion, dans une seule transaction
+    public ResultatSortie enregistrerSortieAvecPaiement(String immatriculation) {
+        long debut = System.nanoTime();
+        Connection conn = null;
+        boolean acceptee = false;
+        
+        try {
+            conn = DatabaseConnection.getConnection();
+            conn.setAutoCommit(false);
             
-            // Trouver le ticket en cours
-            Ticket ticket = obtenirTicketEnCours(immatriculation);
-            if (ticket == null) {
-                throw new IllegalStateException("Aucun ticket en cours pour ce véhicule");
+            // Ticket en cours (avec place et véhicule) et abonnement en une requête
+            PassageDAO.EtatPassage etat = passageDAO.lireEtatSortie(conn, immatriculation.toUpperCase());
+            if (etat == null) {
+                throw new IllegalArgumentException("Ce véhicule n'est pas dans le parking");
             }
             
-            // Enregistrer la sortie
-            LocalDateTime sortie = LocalDateTime.now();
-            ticket.setSortie(sortie);
+            Ticket ticket = etat.getTicketEnCours();
+            ticket.setSortie(LocalDateTime.now());
             
-            // Vérifier si c'est un abonné
-            boolean estAbonne = abonneService.estAbonneValide(immatriculation);
+            // Calculer le montant si ce n'est pas un abonné (gratuit pour abonnés)
+            ticket.setMontant(etat.isAbonneValide() ? 0.0 : calculerMontant(ticket));
             
-            // Calculer le montant si ce n'est pas un abonné
-            if (!estAbonne) {
-                double montant = calculerMontant(ticket);
-                ticket.setMontant(montant);
-            } else {
-                ticket.setMontant(0.0); // Gratuit pour abonnés
+            // Clôture conditionnelle: une sortie déjà enregistrée par une autre borne échoue
+            if (!ticketDAO.cloturer(conn, ticket.getId(), ticket.getSortie(), ticket.getMontant())) {
+                throw new IllegalStateException("Aucun ticket en cours pour ce véhicule");
             }
             
             // Libérer la place
-            placeService.libererPlace(ticket.getPlace().getId());
-            
-            // Mettre à jour le ticket
-            ticketDAO.update(ticket);
+            if (ticket.getPlace() != null) {
+                placeDAO.libererPlace(conn, ticket.getPlace().getId());
+                ticket.getPlace().setLibre();
+            }
             
-            // Si le ticket a un montant > 0, créer un paiement
+            // Si le ticket a un montant > 0, créer le paiement
+            Paiement paiement = null;
             if (ticket.getMontant() > 0) {
-                creerPaiement(ticket);
+                paiement = new Paiement();
+                paiement.setTicket(ticket);
+                paiement.setMontant(ticket.getMontant());
+                paiement.setDate(ticket.getSortie());
+                paiementDAO.create(conn, paiement);
             }
             
-            return ticket;
+            conn.commit();
+            acceptee = true;
             
-        } catch (Exception e) {
-            System.err.println("Erreur lors de l'enregistrement de la sortie: " + e.getMessage());
-            return null;
-        }
-    }
-
- // Créer un paiement
-    private void creerPaiement(Ticket ticket) {
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        
-        try {
-            // Vérifier si le ticket existe et a un montant
-            if (ticket == null || ticket.getId() <= 0 || ticket.getMontant() <= 0) {
-                return; // Pas de paiement à créer
+            if (ticket.getPlace() != null) {
+                PlaceAllocator.getInstance().marquerLibre(ticket.getPlace().getId());
             }
             
-            // Insérer dans la base de données
-            conn = DatabaseConnection.getConnection();
-            String sql = "INSERT INTO Paiement (ticket_id, montant, date) VALUES (?, ?, ?)";
-            
-            // Créer le statement sans RETURN_GENERATED_KEYS
-            stmt = conn.prepareStatement(sql);
-            stmt.setInt(1, ticket.getId());
-            stmt.setDouble(2, ticket.getMontant());
-            
-            // Utiliser la date actuelle
-            long currentTime = System.currentTimeMillis();
-            java.sql.Timestamp timestamp = new java.sql.Timestamp(currentTime);
-            stmt.setTimestamp(3, timestamp);
-            
-            int affectedRows = stmt.executeUpdate();
-            
-            if (affectedRows > 0) {
-                System.out.println("Paiement créé avec succès pour le ticket: " + ticket.getId());
-            } else {
-                System.err.println("Échec de la création du paiement pour le ticket: " + ticket.getId());
+            long dureeMs = (System.nanoTime() - debut) / 1_000_000;
+            if (dureeMs > OBJECTIF_LATENCE_SORTIE_MS) {
+                System.err.println("Sortie " + immatriculation + " traitée en " + dureeMs +
+                                   " ms (objectif: " + OBJECTIF_LATENCE_SORTIE_MS + " ms)");
             }
+            return new ResultatSortie(ticket, paiement, etat.isAbonneValide(), dureeMs);
             
-        } catch (SQLException e) {
-            System.err.println("Erreur SQL lors de la création du paiement: " + e.getMessage());
-            e.printStackTrace();
         } catch (Exception e) {
-            System.err.println("Erreur lors de la création du paiement: " + e.getMessage());
-            e.printStackTrace();
+            annulerTransaction(conn);
+            System.err.println("Erreur lors de l'enregistrement de la sortie: " + e.getMessage());
+            return null;
         } finally {
-            // Fermer les ressources
-            try {
-                if (stmt != null) stmt.close();
-                if (conn != null) conn.close();
-            } catch (SQLException e) {
-                System.err.println("Erreur lors de la fermeture des ressources: " + e.getMessage());
-            }
+            DatabaseConnection.closeConnection(conn);
+            MetriquesBorne.getInstance().enregistrer(MetriquesBorne.Operation.SORTIE,
+                                                     System.nanoTime() - debut, acceptee);
         }
     }
     
@@ -289,6 +325,16 @@ public class TicketService {
         }
     }
     
+    // Lister une page de tickets (dernier = dernier ticket de la page précédente, null au départ)
+    public List<Ticket> listerTicketsPage(FiltreTickets filtre, Ticket dernier, int taille) {
+        try {
+            return ticketDAO.findPage(filtre, dernier, taille);
+        } catch (SQLException e) {
+            System.err.println("Erreur lors du listage paginé des tickets: " + e.getMessage());
+            return null;
+        }
+    }
+    
     // Vérifier si un véhicule est dans le parking
     public boolean estDansParking(String immatriculation) {
         try {
@@ -297,8 +343,7 @@ public class TicketService {
                 return false;
             }
             
-            Ticket ticket = ticketDAO.findTicketEnCoursByVehicule(vehicule.getId());
-            return ticket != null;
+            return ticketDAO.existsTicketEnCoursByVehicule(vehicule.getId());
         } catch (SQLException e) {
             System.err.println("Erreur lors de la vérification: " + e.getMessage());
             return false;
@@ -375,13 +420,14 @@ public class TicketService {
     // Obtenir les statistiques pour les rapports
     public int obtenirNombreEntrees(java.sql.Date dateDebut, java.sql.Date dateFin) {
         try {
-            String sql = "SELECT COUNT(*) FROM Ticket WHERE entree BETWEEN ? AND ?";
+            String sql = "SELECT COUNT(*) FROM Ticket WHERE entree >= ? AND entree < ?";
             
             try (Connection conn = com.gestion.parking.dao.DatabaseConnection.getConnection();
                  PreparedStatement stmt = conn.prepareStatement(sql)) {
                 
-                stmt.setDate(1, dateDebut);
-                stmt.setDate(2, dateFin);
+                // Dates incluses: [dateDebut 00:00, lendemain de dateFin 00:00[
+                stmt.setTimestamp(1, java.sql.Timestamp.valueOf(dateDebut.toLocalDate().atStartOfDay()));
+                stmt.setTimestamp(2, java.sql.Timestamp.valueOf(dateFin.toLocalDate().plusDays(1).atStartOfDay()));
                 
                 try (ResultSet rs = stmt.executeQuery()) {
                     if (rs.next()) {
@@ -398,16 +444,12 @@ public class TicketService {
  // TicketService.java - Méthode à ajouter
     public boolean vehiculeATicketsHistoriques(String immatriculation) {
         try {
-            List<Ticket> tickets = listerTousTickets();
-            if (tickets != null) {
-                for (Ticket ticket : tickets) {
-                    if (ticket.getVehicule() != null && 
-                        ticket.getVehicule().getImmatriculation().equalsIgnoreCase(immatriculation)) {
-                        return true;
-                    }
-                }
+            Vehicule vehicule = vehiculeService.trouverVehiculeParImmatriculation(immatriculation);
+            if (vehicule == null) {
+                return false;
             }
-            return false;
+            
+            return ticketDAO.existsByVehicule(vehicule.getId());
         } catch (Exception e) {
             System.err.println("Erreur lors de la vérification des tickets historiques: " + e.getMessage());
             return false;
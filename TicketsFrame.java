@@ -19,11 +19,22 @@ public class TicketsFrame extends JInternalFrame {
     private boolean sortAscending = true; // Pour alterner entre ascendant et descendant
     private int lastSortedColumn = -1; // Pour suivre la dernière colonne triée
     
+    // Chargement par pages au défilement (pagination par clé sur entree, id)
+    private static final int TAILLE_PAGE = 100;
+    private static final int SEUIL_CHARGEMENT_PX = 150;
+    private JScrollPane scrollPane;
+    private JLabel countLabel;
+    private Ticket dernierTicket;
+    private boolean finAtteinte = false;
+    private boolean chargementEnCours = false;
+    private AsyncLoader loader;
+    
     public TicketsFrame() {
         super("Gestion des Tickets", true, true, true, true);
         setSize(1200, 600);
         
         ticketService = new TicketService();
+        loader = new AsyncLoader(this);
         
         initComponents();
         loadData();
@@ -174,11 +185,27 @@ public class TicketsFrame extends JInternalFrame {
             }
         });
         
-        JScrollPane scrollPane = new JScrollPane(table);
+        scrollPane = new JScrollPane(table);
         scrollPane.setBorder(BorderFactory.createLineBorder(Color.LIGHT_GRAY));
         
+        // Charger la page suivante à l'approche du bas de la liste
+        scrollPane.getVerticalScrollBar().addAdjustmentListener(e -> {
+            JScrollBar bar = scrollPane.getVerticalScrollBar();
+            if (bar.getValue() + bar.getVisibleAmount() >= bar.getMaximum() - SEUIL_CHARGEMENT_PX) {
+                SwingUtilities.invokeLater(this::chargerPageSuivante);
+            }
+        });
+        
         mainPanel.add(scrollPane, BorderLayout.CENTER);
         
+        // Footer avec le nombre de tickets chargés
+        JPanel footerPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        countLabel = new JLabel();
+        countLabel.setFont(new Font("Segoe UI", Font.PLAIN, 12));
+        countLabel.setForeground(Color.GRAY);
+        footerPanel.add(countLabel);
+        mainPanel.add(footerPanel, BorderLayout.SOUTH);
+        
         setContentPane(mainPanel);
     }
     
@@ -286,39 +313,83 @@ public class TicketsFrame extends JInternalFrame {
     
     private void loadData() {
         tableModel.setRowCount(0);
-        List<Ticket> tickets = ticketService.listerTousTickets();
-        
-        if (tickets != null) {
-            for (Ticket t : tickets) {
-                String immatriculation = t.getVehicule() != null ? 
-                    t.getVehicule().getImmatriculation() : "Inconnu";
-                String proprietaire = t.getVehicule() != null ? 
-                    t.getVehicule().getProprietaire() : "Inconnu";
-                String place = t.getPlace() != null ? 
-                    t.getPlace().getNumero() : "Inconnu";
-                String entree = t.getEntree() != null ? 
-                    t.getEntree().format(dtf) : "";
-                String sortie = t.getSortie() != null ? 
-                    t.getSortie().format(dtf) : "";
-                String statut = t.estEnCours() ? "En cours" : "Terminé";
-                
-                tableModel.addRow(new Object[]{
-                    t.getId(),
-                    immatriculation,
-                    proprietaire,
-                    place,
-                    entree,
-                    sortie,
-                    t.getMontant(),
-                    statut
-                });
-            }
-        }
+        dernierTicket = null;
+        finAtteinte = false;
+        // Le chargement en cours (s'il y en a un) est remplacé par celui de la première page
+        chargementEnCours = false;
         
-        tableModel.fireTableDataChanged();
+        chargerPageSuivante();
         updateHeaderSortIndicator(); // Mettre à jour l'affichage des indicateurs de tri
     }
     
+    // Ajouter la page suivante de tickets à la table (lecture hors EDT)
+    private void chargerPageSuivante() {
+        if (chargementEnCours || finAtteinte) {
+            return;
+        }
+        chargementEnCours = true;
+        countLabel.setText(tableModel.getRowCount() + " tickets affichés (chargement...)");
+        
+        Ticket apres = dernierTicket;
+        loader.charger("page", () -> ticketService.listerTicketsPage(null, apres, TAILLE_PAGE),
+            this::afficherPage,
+            e -> {
+                chargementEnCours = false;
+                countLabel.setText(tableModel.getRowCount() + " tickets affichés (erreur de chargement)");
+                System.err.println("Erreur lors du chargement des tickets: " + e.getMessage());
+            });
+    }
+    
+    private void afficherPage(List<Ticket> tickets) {
+        chargementEnCours = false;
+        if (tickets == null) {
+            // Erreur SQL déjà journalisée par le service: même affichage qu'un échec du chargement
+            countLabel.setText(tableModel.getRowCount() + " tickets affichés (erreur de chargement)");
+            return;
+        }
+        
+        for (Ticket t : tickets) {
+            ajouterLigne(t);
+        }
+        
+        if (!tickets.isEmpty()) {
+            dernierTicket = tickets.get(tickets.size() - 1);
+        }
+        finAtteinte = tickets.size() < TAILLE_PAGE;
+        
+        // Conserver le tri par statut sur les lignes ajoutées
+        if (lastSortedColumn == 7) {
+            sortByStatus();
+        }
+        
+        countLabel.setText(tableModel.getRowCount() + " tickets affichés" + (finAtteinte ? "" : " (défiler pour charger la suite)"));
+    }
+    
+    private void ajouterLigne(Ticket t) {
+        String immatriculation = t.getVehicule() != null ? 
+            t.getVehicule().getImmatriculation() : "Inconnu";
+        String proprietaire = t.getVehicule() != null ? 
+            t.getVehicule().getProprietaire() : "Inconnu";
+        String place = t.getPlace() != null ? 
+            t.getPlace().getNumero() : "Inconnu";
+        String entree = t.getEntree() != null ? 
+            t.getEntree().format(dtf) : "";
+        String sortie = t.getSortie() != null ? 
+            t.getSortie().format(dtf) : "";
+        String statut = t.estEnCours() ? "En cours" : "Terminé";
+        
+        tableModel.addRow(new Object[]{
+            t.getId(),
+            immatriculation,
+            proprietaire,
+            place,
+            entree,
+            sortie,
+            t.getMontant(),
+            statut
+        });
+    }
+    
     private void showDetails() {
         int selectedRow = table.getSelectedRow();
         if (selectedRow == -1) {
@@ -0,0 +1,46 @@
+package com.gestion.parking.dao;
+
+import com.gestion.parking.model.Vehicule;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+// Carte d'identité + chargement groupé des véhicules, à utiliser le temps d'une requête:
+// on déclare les vehicule_id rencontrés, puis un seul "WHERE id IN (...)" les résout tous
+public class VehiculeBatchLoader {
+    private final VehiculeDAO vehiculeDAO;
+    private final Map<Integer, Vehicule> charges = new HashMap<>();
+    private final Set<Integer> enAttente = new LinkedHashSet<>();
+    
+    public VehiculeBatchLoader(VehiculeDAO vehiculeDAO) {
+        this.vehiculeDAO = vehiculeDAO;
+    }
+    
+    // Déclarer un identifiant à charger
+    public void demander(int vehiculeId) {
+        if (!charges.containsKey(vehiculeId)) {
+            enAttente.add(vehiculeId);
+        }
+    }
+    
+    // Charger en une requête tous les identifiants en attente
+    public void charger() throws SQLException {
+        if (enAttente.isEmpty()) {
+            return;
+        }
+        
+        Map<Integer, Vehicule> trouves = vehiculeDAO.findByIds(enAttente);
+        for (Integer id : enAttente) {
+            // Les identifiants introuvables sont mémorisés à null pour ne pas être redemandés
+            charges.put(id, trouves.get(id));
+        }
+        enAttente.clear();
+    }
+    
+    // Obtenir un véhicule déjà chargé (même instance pour un même identifiant)
+    public Vehicule get(int vehiculeId) {
+        return charges.get(vehiculeId);
+    }
+}
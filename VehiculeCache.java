@@ -0,0 +1,162 @@
+package com.gestion.parking.dao;
+
+import com.gestion.parking.model.Vehicule;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Cache LRU borné des véhicules, partagé par toutes les instances de VehiculeDAO.
+// Indexé par identifiant (ordre d'accès LRU) et par immatriculation normalisée; les deux index
+// sont tenus sous le même verrou, une éviction retire donc toujours les deux entrées.
+// Les véhicules sont copiés à l'entrée et à la sortie: un appelant qui modifie l'objet reçu
+// ne modifie pas le cache.
+public class VehiculeCache {
+    private static final int TAILLE_MAX = ConfigurationBase.get().entier("parking.vehicules.cacheTaille", 2000);
+
+    private static final VehiculeCache INSTANCE = new VehiculeCache(TAILLE_MAX);
+
+    private final int tailleMax;
+    private final LinkedHashMap<Integer, Vehicule> parId = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Integer> idParImmatriculation = new HashMap<>();
+    // Incrémentée à chaque invalidation: une lecture en base commencée avant ne doit pas être mise en cache
+    private long generation = 0;
+
+    private final AtomicLong succes = new AtomicLong();
+    private final AtomicLong echecs = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    VehiculeCache(int tailleMax) {
+        this.tailleMax = Math.max(1, tailleMax);
+    }
+
+    public static VehiculeCache getInstance() {
+        return INSTANCE;
+    }
+
+    // Clé de recherche: immatriculation sans espaces superflus, en majuscules
+    static String normaliser(String immatriculation) {
+        return immatriculation == null ? null : immatriculation.trim().toUpperCase(Locale.ROOT);
+    }
+
+    // Véhicule en cache, ou null (compté comme échec)
+    public Vehicule getParId(int id) {
+        Vehicule vehicule;
+        synchronized (this) {
+            vehicule = parId.get(id);
+        }
+        return compter(vehicule);
+    }
+
+    public Vehicule getParImmatriculation(String immatriculation) {
+        String cle = normaliser(immatriculation);
+        Vehicule vehicule = null;
+        if (cle != null) {
+            synchronized (this) {
+                Integer id = idParImmatriculation.get(cle);
+                if (id != null) {
+                    vehicule = parId.get(id);
+                }
+            }
+        }
+        return compter(vehicule);
+    }
+
+    // À lire avant la requête en base, puis à passer à put()
+    public synchronized long getGeneration() {
+        return generation;
+    }
+
+    // Mémoriser un véhicule lu en base, sauf si une invalidation a eu lieu pendant la lecture
+    public void put(Vehicule vehicule, long generationLecture) {
+        if (vehicule == null || vehicule.getImmatriculation() == null) {
+            return;
+        }
+        Vehicule copie = copier(vehicule);
+        String cle = normaliser(copie.getImmatriculation());
+
+        synchronized (this) {
+            if (generation != generationLecture) {
+                return;
+            }
+            Vehicule precedent = parId.put(copie.getId(), copie);
+            if (precedent != null) {
+                idParImmatriculation.remove(normaliser(precedent.getImmatriculation()));
+            }
+            idParImmatriculation.put(cle, copie.getId());
+
+            Iterator<Map.Entry<Integer, Vehicule>> it = parId.entrySet().iterator();
+            while (parId.size() > tailleMax && it.hasNext()) {
+                Vehicule ancien = it.next().getValue();
+                it.remove();
+                idParImmatriculation.remove(normaliser(ancien.getImmatriculation()));
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    // Retirer un véhicule (et son immatriculation) après modification ou suppression
+    public synchronized void invaliderId(int id) {
+        generation++;
+        Vehicule ancien = parId.remove(id);
+        if (ancien != null) {
+            idParImmatriculation.remove(normaliser(ancien.getImmatriculation()));
+        }
+    }
+
+    public synchronized void invaliderImmatriculation(String immatriculation) {
+        generation++;
+        Integer id = idParImmatriculation.remove(normaliser(immatriculation));
+        if (id != null) {
+            parId.remove(id);
+        }
+    }
+
+    public synchronized void vider() {
+        generation++;
+        parId.clear();
+        idParImmatriculation.clear();
+    }
+
+    public synchronized int getTaille() {
+        return parId.size();
+    }
+
+    public long getSucces() {
+        return succes.get();
+    }
+
+    public long getEchecs() {
+        return echecs.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    @Override
+    public String toString() {
+        return "VehiculeCache{" +
+                "taille=" + getTaille() +
+                ", tailleMax=" + tailleMax +
+                ", succes=" + succes.get() +
+                ", echecs=" + echecs.get() +
+                ", evictions=" + evictions.get() +
+                '}';
+    }
+
+    private Vehicule compter(Vehicule vehicule) {
+        if (vehicule == null) {
+            echecs.incrementAndGet();
+            return null;
+        }
+        succes.incrementAndGet();
+        return copier(vehicule);
+    }
+
+    private static Vehicule copier(Vehicule vehicule) {
+        return new Vehicule(vehicule.getId(), vehicule.getImmatriculation(), vehicule.getProprietaire());
+    }
+}
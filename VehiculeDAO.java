@@ -3,16 +3,26 @@ package com.gestion.parking.dao;
 import com.gestion.parking.model.Vehicule;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class VehiculeDAO {
     
+    // Identifiants par requête de findByIds (liste IN de taille bornée)
+    private static final int TAILLE_LOT_IDS = 500;
+    
+    // Cache partagé des lectures unitaires (par id et par immatriculation)
+    private final VehiculeCache cache = VehiculeCache.getInstance();
+    
 	// Créer un véhicule
 	public int create(Vehicule vehicule) throws SQLException {
 	    // Valider l'immatriculation avant l'insertion
 	    validerImmatriculation(vehicule.getImmatriculation());
 	    
 	    String sql = "INSERT INTO Vehicule (immatriculation, proprietaire) VALUES (?, ?)";
+	    cache.invaliderImmatriculation(vehicule.getImmatriculation());
 	    
 	    try (Connection conn = DatabaseConnection.getConnection();
 	         PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
@@ -111,8 +121,14 @@ public class VehiculeDAO {
 	    }
 	}
     
-    // Trouver par immatriculation
+    // Trouver par immatriculation (cache d'abord)
     public Vehicule findByImmatriculation(String immatriculation) throws SQLException {
+        Vehicule enCache = cache.getParImmatriculation(immatriculation);
+        if (enCache != null) {
+            return enCache;
+        }
+        
+        long generation = cache.getGeneration();
         String sql = "SELECT * FROM Vehicule WHERE immatriculation = ?";
         
         try (Connection conn = DatabaseConnection.getConnection();
@@ -122,15 +138,23 @@ public class VehiculeDAO {
             
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return mapResultSetToVehicule(rs);
+                    Vehicule vehicule = mapResultSetToVehicule(rs);
+                    cache.put(vehicule, generation);
+                    return vehicule;
                 }
             }
         }
         return null;
     }
     
-    // Trouver par ID
+    // Trouver par ID (cache d'abord)
     public Vehicule findById(int id) throws SQLException {
+        Vehicule enCache = cache.getParId(id);
+        if (enCache != null) {
+            return enCache;
+        }
+        
+        long generation = cache.getGeneration();
         String sql = "SELECT * FROM Vehicule WHERE id = ?";
         
         try (Connection conn = DatabaseConnection.getConnection();
@@ -140,13 +164,55 @@ public class VehiculeDAO {
             
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return mapResultSetToVehicule(rs);
+                    Vehicule vehicule = mapResultSetToVehicule(rs);
+                    cache.put(vehicule, generation);
+                    return vehicule;
                 }
             }
         }
         return null;
     }
     
+    // Trouver plusieurs véhicules (WHERE id IN (...)), une requête par lot de TAILLE_LOT_IDS identifiants
+    public Map<Integer, Vehicule> findByIds(Collection<Integer> ids) throws SQLException {
+        Map<Integer, Vehicule> vehicules = new HashMap<>();
+        if (ids == null || ids.isEmpty()) {
+            return vehicules;
+        }
+        
+        List<Integer> liste = new ArrayList<>(ids);
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            for (int debut = 0; debut < liste.size(); debut += TAILLE_LOT_IDS) {
+                List<Integer> lot = liste.subList(debut, Math.min(debut + TAILLE_LOT_IDS, liste.size()));
+                lireLot(conn, lot, vehicules);
+            }
+        }
+        return vehicules;
+    }
+    
+    private void lireLot(Connection conn, List<Integer> lot, Map<Integer, Vehicule> vehicules) throws SQLException {
+        StringBuilder placeholders = new StringBuilder();
+        for (int i = 0; i < lot.size(); i++) {
+            placeholders.append(i == 0 ? "?" : ", ?");
+        }
+        String sql = "SELECT * FROM Vehicule WHERE id IN (" + placeholders + ")";
+        
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            int index = 1;
+            for (Integer id : lot) {
+                stmt.setInt(index++, id);
+            }
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Vehicule vehicule = mapResultSetToVehicule(rs);
+                    vehicules.put(vehicule.getId(), vehicule);
+                }
+            }
+        }
+    }
+    
     // Trouver par propriétaire
     public List<Vehicule> findByProprietaire(String proprietaire) throws SQLException {
         List<Vehicule> vehicules = new ArrayList<>();
@@ -178,6 +244,10 @@ public class VehiculeDAO {
             stmt.setInt(3, vehicule.getId());
             
             return stmt.executeUpdate() > 0;
+        } finally {
+            // Ancienne immatriculation retirée avec l'id, la nouvelle peut désigner une autre entrée
+            cache.invaliderId(vehicule.getId());
+            cache.invaliderImmatriculation(vehicule.getImmatriculation());
         }
     }
     
@@ -190,6 +260,8 @@ public class VehiculeDAO {
             
             stmt.setInt(1, id);
             return stmt.executeUpdate() > 0;
+        } finally {
+            cache.invaliderId(id);
         }
     }
     
@@ -209,6 +281,32 @@ public class VehiculeDAO {
         return vehicules;
     }
     
+    // Page de véhicules triés par immatriculation, pagination par clé:
+    // "dernier" est le dernier véhicule de la page précédente (null pour la première page)
+    public List<Vehicule> findPage(Vehicule dernier, int taille) throws SQLException {
+        List<Vehicule> vehicules = new ArrayList<>();
+        String sql = dernier == null
+                   ? "SELECT * FROM Vehicule ORDER BY immatriculation LIMIT ?"
+                   : "SELECT * FROM Vehicule WHERE immatriculation > ? ORDER BY immatriculation LIMIT ?";
+        
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            int index = 1;
+            if (dernier != null) {
+                stmt.setString(index++, dernier.getImmatriculation());
+            }
+            stmt.setInt(index, taille);
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    vehicules.add(mapResultSetToVehicule(rs));
+                }
+            }
+        }
+        return vehicules;
+    }
+    
     // Vérifier si immatriculation existe
     public boolean exists(String immatriculation) throws SQLException {
         String sql = "SELECT COUNT(*) FROM Vehicule WHERE immatriculation = ?";
@@ -227,6 +325,11 @@ public class VehiculeDAO {
         return false;
     }
     
+    // Compteurs du cache (succès, échecs, évictions)
+    public VehiculeCache getCache() {
+        return cache;
+    }
+    
     // Compter tous les véhicules
     public int countAll() throws SQLException {
         String sql = "SELECT COUNT(*) FROM Vehicule";
@@ -245,10 +348,24 @@ public class VehiculeDAO {
     
     // Méthode utilitaire pour mapper ResultSet -> Vehicule
     private Vehicule mapResultSetToVehicule(ResultSet rs) throws SQLException {
-        Vehicule vehicule = new Vehicule();
-        vehicule.setId(rs.getInt("id"));
-        vehicule.setImmatriculation(rs.getString("immatriculation"));
-        vehicule.setProprietaire(rs.getString("proprietaire"));
-        return vehicule;
+        return MAPPER.mapRow(rs);
+    }
+    
+    // Mapper des colonnes Vehicule (sans préfixe)
+    static final RowMapper<Vehicule> MAPPER = mapper("");
+    
+    // Mapper des colonnes Vehicule préfixées (ex: "vehicule_" dans une jointure), null si absent
+    static RowMapper<Vehicule> mapper(String prefixe) {
+        return rs -> {
+            int id = rs.getInt(prefixe + "id");
+            if (rs.wasNull()) {
+                return null;
+            }
+            Vehicule vehicule = new Vehicule();
+            vehicule.setId(id);
+            vehicule.setImmatriculation(rs.getString(prefixe + "immatriculation"));
+            vehicule.setProprietaire(rs.getString(prefixe + "proprietaire"));
+            return vehicule;
+        };
     }
 }
\ No newline at end of file
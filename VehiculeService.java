@@ -1,15 +1,22 @@
 package com.gestion.parking.service;
 
+import com.gestion.parking.dao.AbonneDAO;
+import com.gestion.parking.dao.TicketDAO;
 import com.gestion.parking.dao.VehiculeDAO;
+import com.gestion.parking.model.Abonne;
 import com.gestion.parking.model.Vehicule;
 import java.sql.SQLException;
 import java.util.List;
 
 public class VehiculeService {
     private VehiculeDAO vehiculeDAO;
+    private TicketDAO ticketDAO;
+    private AbonneDAO abonneDAO;
     
     public VehiculeService() {
         this.vehiculeDAO = new VehiculeDAO();
+        this.ticketDAO = new TicketDAO();
+        this.abonneDAO = new AbonneDAO();
     }
     
     // Enregistrer un nouveau véhicule
@@ -68,13 +75,31 @@ public class VehiculeService {
     // Mettre à jour un véhicule
     public boolean mettreAJourVehicule(Vehicule vehicule) {
         try {
-            return vehiculeDAO.update(vehicule);
+            boolean modifie = vehiculeDAO.update(vehicule);
+            if (modifie) {
+                reindexerAbonnement(vehicule);
+            }
+            return modifie;
         } catch (SQLException e) {
             System.err.println("Erreur lors de la mise à jour du véhicule: " + e.getMessage());
             return false;
         }
     }
     
+    // L'index des abonnements est tenu par immatriculation: l'abonné du véhicule y est réenregistré
+    // sous l'immatriculation (éventuellement corrigée) du véhicule modifié
+    private void reindexerAbonnement(Vehicule vehicule) {
+        try {
+            Abonne abonne = abonneDAO.findByVehiculeId(vehicule.getId());
+            if (abonne != null) {
+                abonne.setVehicule(vehicule);
+                AbonnementIndex.getInstance().enregistrer(abonne);
+            }
+        } catch (SQLException e) {
+            System.err.println("Index des abonnements non mis à jour (rechargé à minuit): " + e.getMessage());
+        }
+    }
+    
  // Supprimer un véhicule
     public boolean supprimerVehicule(int id) {
         try {
@@ -85,15 +110,14 @@ public class VehiculeService {
             }
             
             // Vérifier si le véhicule a des tickets en cours
-            TicketService ticketService = new TicketService();
-            boolean estDansParking = ticketService.estDansParking(vehicule.getImmatriculation());
+            boolean estDansParking = ticketDAO.existsTicketEnCoursByVehicule(id);
             
             if (estDansParking) {
                 throw new IllegalStateException("Impossible de supprimer un véhicule présent dans le parking.");
             }
             
             // Vérifier si le véhicule a des tickets historiques
-            boolean aDesTickets = ticketService.vehiculeATicketsHistoriques(vehicule.getImmatriculation());
+            boolean aDesTickets = ticketDAO.existsByVehicule(id);
             
             if (aDesTickets) {
                 // Proposer des alternatives
@@ -135,6 +159,16 @@ public class VehiculeService {
         }
     }
     
+    // Lister une page de véhicules (dernier = dernier véhicule de la page précédente, null au départ)
+    public List<Vehicule> listerVehiculesPage(Vehicule dernier, int taille) {
+        try {
+            return vehiculeDAO.findPage(dernier, taille);
+        } catch (SQLException e) {
+            System.err.println("Erreur lors du listage paginé des véhicules: " + e.getMessage());
+            return null;
+        }
+    }
+    
     // Vérifier si un véhicule existe
     public boolean vehiculeExiste(String immatriculation) {
         try {
@@ -11,12 +11,15 @@ public class VehiculesFrame extends JInternalFrame {
     private VehiculeService vehiculeService;
     private JTable table;
     private DefaultTableModel tableModel;
+    private AsyncLoader loader;
+    private static final int TAILLE_PAGE = 200;
     
     public VehiculesFrame() {
         super("Gestion des Véhicules", true, true, true, true);
         setSize(1000, 600);
         
         vehiculeService = new VehiculeService();
+        loader = new AsyncLoader(this);
         
         initComponents();
         loadData();
@@ -104,19 +107,23 @@ public class VehiculesFrame extends JInternalFrame {
     
     private void loadData() {
         tableModel.setRowCount(0);
-        List<Vehicule> vehicules = vehiculeService.listerTousVehicules();
-        
-        if (vehicules != null) {
-            for (Vehicule v : vehicules) {
-                tableModel.addRow(new Object[]{
-                    v.getId(),
-                    v.getImmatriculation(),
-                    v.getProprietaire()
-                });
-            }
-        }
         
-        tableModel.fireTableDataChanged();
+        // Lecture hors EDT page par page, lignes ajoutées au fur et à mesure
+        loader.chargerParLots("vehicules",
+            AsyncLoader.parPages(vehiculeService::listerVehiculesPage, TAILLE_PAGE),
+            lot -> {
+                for (Vehicule v : lot) {
+                    tableModel.addRow(new Object[]{
+                        v.getId(),
+                        v.getImmatriculation(),
+                        v.getProprietaire()
+                    });
+                }
+            },
+            () -> {},
+            e -> JOptionPane.showMessageDialog(this,
+                "Erreur lors du chargement des véhicules :\n" + e.getMessage(),
+                "Erreur de chargement", JOptionPane.ERROR_MESSAGE));
     }
     
     private void addVehicule() {
@@ -0,0 +1,49 @@
+package com.gestion.parking.benchmarks;
+
+import com.gestion.parking.dao.ActiviteDAO;
+import com.gestion.parking.service.IndicateursDashboard;
+import com.gestion.parking.service.StatistiqueService;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Calculs du tableau de bord. Le cache des indicateurs est désactivé (TTL 0):
+// chaque appel mesure la requête d'instantané elle-même.
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(value = 1, jvmArgsAppend = "-Dparking.stats.indicateursTtlMs=0")
+@State(Scope.Benchmark)
+public class DashboardBenchmark {
+    private static final int LIMITE_ACTIVITES = 200;
+
+    private final StatistiqueService statistiqueService = new StatistiqueService();
+
+    @Benchmark
+    public IndicateursDashboard indicateurs(VolumesBase volumes) {
+        return statistiqueService.obtenirIndicateurs();
+    }
+
+    @Benchmark
+    public List<ActiviteDAO.Activite> activitesDuJour(VolumesBase volumes) {
+        return statistiqueService.listerActivitesDuJour(LocalDate.now(), LIMITE_ACTIVITES);
+    }
+
+    @Benchmark
+    public Map<LocalDate, Integer> serieEntrees30Jours(VolumesBase volumes) {
+        LocalDate aujourdhui = LocalDate.now();
+        return statistiqueService.obtenirSerieEntrees(aujourdhui.minusDays(29), aujourdhui,
+            StatistiqueService.Granularite.JOUR);
+    }
+}
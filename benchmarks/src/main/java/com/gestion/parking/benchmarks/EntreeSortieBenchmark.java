@@ -0,0 +1,60 @@
+package com.gestion.parking.benchmarks;
+
+import com.gestion.parking.dao.BaseEmbarquee;
+import com.gestion.parking.model.Ticket;
+import com.gestion.parking.service.ResultatSortie;
+import com.gestion.parking.service.TicketService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+// Passage complet à la borne: enregistrerEntree puis enregistrerSortieAvecPaiement du même véhicule.
+// Chaque thread JMH a son propre véhicule, le passage laisse la base dans son état initial.
+// SampleTime donne les percentiles de latence (p50, p90, p99, p99.9).
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class EntreeSortieBenchmark {
+    private static final AtomicInteger PROCHAIN_VEHICULE = new AtomicInteger();
+
+    @State(Scope.Thread)
+    public static class Borne {
+        TicketService ticketService;
+        String immatriculation;
+
+        @Setup(Level.Trial)
+        public void preparer(VolumesBase volumes) {
+            ticketService = new TicketService();
+            // Véhicules non abonnés (les premiers le sont), un par thread
+            int numero = volumes.abonnes + 1 + PROCHAIN_VEHICULE.getAndIncrement();
+            if (numero > volumes.vehicules) {
+                throw new IllegalStateException("Pas assez de véhicules non abonnés pour le nombre de threads");
+            }
+            immatriculation = BaseEmbarquee.immatriculation(numero);
+        }
+    }
+
+    @Benchmark
+    public void passage(VolumesBase volumes, Borne borne, Blackhole bh) {
+        Ticket ticket = borne.ticketService.enregistrerEntree(borne.immatriculation);
+        if (ticket == null) {
+            throw new IllegalStateException("Entrée refusée pour " + borne.immatriculation);
+        }
+        ResultatSortie sortie = borne.ticketService.enregistrerSortieAvecPaiement(borne.immatriculation);
+        bh.consume(ticket);
+        bh.consume(sortie);
+    }
+}
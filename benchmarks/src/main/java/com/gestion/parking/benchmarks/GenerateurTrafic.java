@@ -0,0 +1,517 @@
+package com.gestion.parking.benchmarks;
+
+import com.gestion.parking.dao.BaseEmbarquee;
+import com.gestion.parking.dao.ConfigurationBase;
+import com.gestion.parking.dao.DatabaseConnection;
+import com.gestion.parking.model.Ticket;
+import com.gestion.parking.service.ResultatSortie;
+import com.gestion.parking.service.TicketService;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Générateur de trafic aux bornes: plusieurs bornes simulées appellent TicketService.enregistrerEntree
+// et enregistrerSortieAvecPaiement (chemin de SortieDialog) selon une journée compressée dans la durée du test,
+// avec pointes du matin, de midi et du soir. Résultats (débit, p50/p99/p99.9, erreurs) écrits en JSON.
+//
+// java -cp target/benchmarks.jar com.gestion.parking.benchmarks.GenerateurTrafic \
+//      bornes=8 duree=300 debitPointe=1200 population=3000 ratioAbonnes=0.2 places=500 resultats=trafic.json
+//
+// Ne fonctionne que sur le profil embarqué: le test crée des tickets et des paiements.
+public class GenerateurTrafic {
+
+    // Paramètres du test (cle=valeur en ligne de commande)
+    static final class Options {
+        int bornes = 8;
+        int dureeSec = 300;
+        // Arrivées par minute (temps réel) au plus fort de la pointe du matin
+        int debitPointe = 600;
+        int population = 2000;
+        double ratioAbonnes = 0.2;
+        int places = 500;
+        // Journée simulée [heureDebut, heureFin[ compressée dans dureeSec
+        double heureDebut = 6.0;
+        double heureFin = 22.0;
+        // Durée moyenne de stationnement simulée (minutes)
+        int stationnementVisiteurMin = 90;
+        int stationnementAbonneMin = 480;
+        int intervalleSec = 10;
+        long graine = 42L;
+        String resultats = "trafic-resultats.json";
+
+        static Options lire(String[] args) {
+            Options o = new Options();
+            for (String arg : args) {
+                int egal = arg.indexOf('=');
+                if (egal <= 0) {
+                    throw new IllegalArgumentException("Argument attendu sous la forme cle=valeur: " + arg);
+                }
+                String cle = arg.substring(0, egal);
+                String valeur = arg.substring(egal + 1);
+                switch (cle) {
+                    case "bornes": o.bornes = Integer.parseInt(valeur); break;
+                    case "duree": o.dureeSec = Integer.parseInt(valeur); break;
+                    case "debitPointe": o.debitPointe = Integer.parseInt(valeur); break;
+                    case "population": o.population = Integer.parseInt(valeur); break;
+                    case "ratioAbonnes": o.ratioAbonnes = Double.parseDouble(valeur); break;
+                    case "places": o.places = Integer.parseInt(valeur); break;
+                    case "heureDebut": o.heureDebut = Double.parseDouble(valeur); break;
+                    case "heureFin": o.heureFin = Double.parseDouble(valeur); break;
+                    case "stationnementVisiteur": o.stationnementVisiteurMin = Integer.parseInt(valeur); break;
+                    case "stationnementAbonne": o.stationnementAbonneMin = Integer.parseInt(valeur); break;
+                    case "intervalle": o.intervalleSec = Integer.parseInt(valeur); break;
+                    case "graine": o.graine = Long.parseLong(valeur); break;
+                    case "resultats": o.resultats = valeur; break;
+                    default: throw new IllegalArgumentException("Option inconnue: " + cle);
+                }
+            }
+            if (o.bornes < 1 || o.dureeSec < 1 || o.population < 1 || o.places < 1 || o.heureFin <= o.heureDebut) {
+                throw new IllegalArgumentException("Options incohérentes");
+            }
+            return o;
+        }
+
+        int nombreAbonnes() {
+            return (int) Math.round(population * Math.max(0.0, Math.min(1.0, ratioAbonnes)));
+        }
+    }
+
+    // Échantillons de latence (nanosecondes) d'un type d'opération
+    static final class Latences {
+        private long[] valeurs = new long[1024];
+        private int taille = 0;
+
+        synchronized void ajouter(long nanos) {
+            if (taille == valeurs.length) {
+                valeurs = Arrays.copyOf(valeurs, taille * 2);
+            }
+            valeurs[taille++] = nanos;
+        }
+
+        synchronized int taille() {
+            return taille;
+        }
+
+        // Percentiles en millisecondes (p en [0, 1]), dans l'ordre demandé
+        synchronized double[] percentilesMs(double... p) {
+            double[] resultat = new double[p.length];
+            if (taille == 0) {
+                return resultat;
+            }
+            long[] tries = Arrays.copyOf(valeurs, taille);
+            Arrays.sort(tries);
+            for (int i = 0; i < p.length; i++) {
+                int rang = (int) Math.ceil(p[i] * taille) - 1;
+                resultat[i] = tries[Math.max(0, Math.min(taille - 1, rang))] / 1_000_000.0;
+            }
+            return resultat;
+        }
+    }
+
+    // Compteurs d'un intervalle de temps réel
+    static final class Intervalle {
+        final AtomicLong entrees = new AtomicLong();
+        final AtomicLong sorties = new AtomicLong();
+        final AtomicLong echecs = new AtomicLong();
+        final Latences latences = new Latences();
+    }
+
+    private final Options options;
+    private final TicketService ticketService = new TicketService();
+    private final SplittableRandom aleatoire;
+    private final int nombreAbonnes;
+
+    // Véhicules hors du parking (numéros 1..population), tirés au hasard à chaque arrivée
+    private final List<Integer> dehors = new ArrayList<>();
+    // Place -> immatriculation, d'après les tickets renvoyés: détecte une place attribuée deux fois
+    private final Map<Integer, String> placesOccupees = new ConcurrentHashMap<>();
+
+    private final Latences latencesEntree = new Latences();
+    private final Latences latencesSortie = new Latences();
+    // Attente avant prise en charge par une borne (file d'attente saturée)
+    private final Latences attentes = new Latences();
+    private final Map<Integer, Intervalle> intervalles = new ConcurrentHashMap<>();
+
+    private final AtomicLong arrivees = new AtomicLong();
+    private final AtomicLong arriveesSansVehicule = new AtomicLong();
+    private final AtomicLong entrees = new AtomicLong();
+    private final AtomicLong entreesEchouees = new AtomicLong();
+    private final AtomicLong sorties = new AtomicLong();
+    private final AtomicLong sortiesAbonnes = new AtomicLong();
+    private final AtomicLong sortiesEchouees = new AtomicLong();
+    private final AtomicLong doublesAttributions = new AtomicLong();
+
+    private ExecutorService bornes;
+    private ScheduledExecutorService departs;
+    private long debutNanos;
+
+    GenerateurTrafic(Options options) {
+        this.options = options;
+        this.aleatoire = new SplittableRandom(options.graine);
+        this.nombreAbonnes = options.nombreAbonnes();
+        for (int i = 1; i <= options.population; i++) {
+            dehors.add(i);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.lire(args);
+
+        // Valeurs absentes de toutes les sources (propriétés, environnement, parking.properties): défauts du générateur
+        ConfigurationBase config = ConfigurationBase.get();
+        if (config.valeur("parking.db.profil") == null) {
+            System.setProperty("parking.db.profil", "embarque");
+        }
+        if (!config.estEmbarque()) {
+            System.err.println("Le générateur de trafic écrit des tickets et des paiements: profil embarqué requis");
+            System.exit(2);
+        }
+        // Bornes simulées + tâches de fond: le pool doit pouvoir servir toutes les bornes en même temps
+        if (config.valeur("parking.pool.max") == null) {
+            System.setProperty("parking.pool.max", String.valueOf(options.bornes + 2));
+        }
+
+        BaseEmbarquee.preparer(options.places, options.population, 0, 0, options.nombreAbonnes());
+
+        GenerateurTrafic generateur = new GenerateurTrafic(options);
+        try {
+            generateur.executer();
+            generateur.ecrireResultats(Paths.get(options.resultats));
+        } finally {
+            DatabaseConnection.shutdown();
+        }
+    }
+
+    void executer() throws InterruptedException, SQLException {
+        bornes = Executors.newFixedThreadPool(options.bornes, r -> {
+            Thread t = new Thread(r, "borne");
+            t.setDaemon(true);
+            return t;
+        });
+        departs = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "departs");
+            t.setDaemon(true);
+            return t;
+        });
+
+        double intensiteMax = intensiteMaximale();
+        double arriveesParSecMax = options.debitPointe / 60.0;
+        long dureeNanos = TimeUnit.SECONDS.toNanos(options.dureeSec);
+
+        System.out.println("Trafic: " + options.bornes + " bornes, " + options.dureeSec + " s, pointe " +
+            options.debitPointe + " arrivées/min, " + options.population + " véhicules dont " + nombreAbonnes +
+            " abonnés, " + options.places + " places");
+
+        // Processus de Poisson non homogène par amincissement: candidats au débit de pointe,
+        // acceptés selon l'intensité de l'heure simulée
+        debutNanos = System.nanoTime();
+        long prochaine = debutNanos;
+        while (true) {
+            prochaine += (long) (-Math.log(1.0 - hasard()) / arriveesParSecMax * 1_000_000_000L);
+            if (prochaine - debutNanos >= dureeNanos) {
+                break;
+            }
+            attendreJusqua(prochaine);
+
+            double heure = heureSimulee(prochaine);
+            if (hasard() * intensiteMax <= intensite(heure)) {
+                arriver(prochaine);
+            }
+        }
+
+        // Fin du test: plus d'arrivées ni de départs, on laisse les bornes finir leur file
+        departs.shutdownNow();
+        bornes.shutdown();
+        bornes.awaitTermination(60, TimeUnit.SECONDS);
+        System.out.println("Trafic terminé: " + entrees.get() + " entrées, " + sorties.get() + " sorties");
+    }
+
+    private void arriver(long prevueNanos) {
+        arrivees.incrementAndGet();
+        Integer numero = tirerVehiculeDehors();
+        if (numero == null) {
+            arriveesSansVehicule.incrementAndGet();
+            return;
+        }
+        bornes.execute(() -> entrer(numero, prevueNanos));
+    }
+
+    private void entrer(int numero, long prevueNanos) {
+        String immatriculation = BaseEmbarquee.immatriculation(numero);
+        long debut = System.nanoTime();
+        attentes.ajouter(debut - prevueNanos);
+
+        Ticket ticket = ticketService.enregistrerEntree(immatriculation);
+        long duree = System.nanoTime() - debut;
+        latencesEntree.ajouter(duree);
+        Intervalle intervalle = intervalle(debut);
+        intervalle.latences.ajouter(duree);
+
+        if (ticket == null || ticket.getPlace() == null) {
+            // Parking plein ou erreur: le véhicule repart
+            entreesEchouees.incrementAndGet();
+            intervalle.echecs.incrementAndGet();
+            rendreVehicule(numero);
+            return;
+        }
+        entrees.incrementAndGet();
+        intervalle.entrees.incrementAndGet();
+
+        String occupant = placesOccupees.putIfAbsent(ticket.getPlace().getId(), immatriculation);
+        if (occupant != null) {
+            doublesAttributions.incrementAndGet();
+            System.err.println("Place " + ticket.getPlace().getNumero() + " attribuée à " + immatriculation +
+                " alors qu'elle est occupée par " + occupant);
+        }
+
+        long sejourNanos = sejourReelNanos(numero <= nombreAbonnes);
+        departs.schedule(() -> {
+            long prevue = System.nanoTime();
+            bornes.execute(() -> sortir(numero, ticket.getPlace().getId(), prevue));
+        }, sejourNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private void sortir(int numero, int placeId, long prevueNanos) {
+        String immatriculation = BaseEmbarquee.immatriculation(numero);
+        long debut = System.nanoTime();
+        attentes.ajouter(debut - prevueNanos);
+
+        // Retirée avant la sortie: dès la validation, l'allocateur peut rendre la place à une entrée concurrente
+        placesOccupees.remove(placeId, immatriculation);
+        ResultatSortie resultat = ticketService.enregistrerSortieAvecPaiement(immatriculation);
+        long duree = System.nanoTime() - debut;
+        latencesSortie.ajouter(duree);
+        Intervalle intervalle = intervalle(debut);
+        intervalle.latences.ajouter(duree);
+
+        if (resultat == null) {
+            // Sortie refusée: la place reste occupée par ce véhicule
+            placesOccupees.putIfAbsent(placeId, immatriculation);
+            sortiesEchouees.incrementAndGet();
+            intervalle.echecs.incrementAndGet();
+            return;
+        }
+        sorties.incrementAndGet();
+        intervalle.sorties.incrementAndGet();
+        if (resultat.isAbonne()) {
+            sortiesAbonnes.incrementAndGet();
+        }
+        rendreVehicule(numero);
+    }
+
+    // Intensité relative des arrivées selon l'heure: fond + pointes du matin, de midi et du soir
+    static double intensite(double heure) {
+        return 0.08
+            + 1.00 * gauss(heure, 8.5, 0.75)
+            + 0.55 * gauss(heure, 12.5, 0.6)
+            + 0.80 * gauss(heure, 17.75, 0.9);
+    }
+
+    private static double gauss(double x, double centre, double ecart) {
+        double z = (x - centre) / ecart;
+        return Math.exp(-0.5 * z * z);
+    }
+
+    private double intensiteMaximale() {
+        double max = 0.0;
+        for (double h = options.heureDebut; h < options.heureFin; h += 1.0 / 60) {
+            max = Math.max(max, intensite(h));
+        }
+        return max;
+    }
+
+    private double heureSimulee(long nanos) {
+        double fraction = (nanos - debutNanos) / (double) TimeUnit.SECONDS.toNanos(options.dureeSec);
+        return options.heureDebut + fraction * (options.heureFin - options.heureDebut);
+    }
+
+    // Séjour simulé (loi exponentielle, 10 minutes au moins) converti en temps réel
+    private long sejourReelNanos(boolean abonne) {
+        double moyenne = abonne ? options.stationnementAbonneMin : options.stationnementVisiteurMin;
+        double minutesSimulees = 10.0 - Math.log(1.0 - hasard()) * Math.max(0.0, moyenne - 10.0);
+        double secondesReellesParHeure = options.dureeSec / (options.heureFin - options.heureDebut);
+        return (long) (minutesSimulees / 60.0 * secondesReellesParHeure * 1_000_000_000L);
+    }
+
+    private Integer tirerVehiculeDehors() {
+        synchronized (dehors) {
+            if (dehors.isEmpty()) {
+                return null;
+            }
+            int index = hasard(dehors.size());
+            int dernier = dehors.size() - 1;
+            Integer numero = dehors.get(index);
+            dehors.set(index, dehors.get(dernier));
+            dehors.remove(dernier);
+            return numero;
+        }
+    }
+
+    // SplittableRandom n'est pas thread-safe: tirages sérialisés (arrivées et bornes)
+    private double hasard() {
+        synchronized (aleatoire) {
+            return aleatoire.nextDouble();
+        }
+    }
+
+    private int hasard(int borne) {
+        synchronized (aleatoire) {
+            return aleatoire.nextInt(borne);
+        }
+    }
+
+    private void rendreVehicule(int numero) {
+        synchronized (dehors) {
+            dehors.add(numero);
+        }
+    }
+
+    private Intervalle intervalle(long nanos) {
+        int index = (int) ((nanos - debutNanos) / TimeUnit.SECONDS.toNanos(options.intervalleSec));
+        return intervalles.computeIfAbsent(index, k -> new Intervalle());
+    }
+
+    // Places portant plusieurs tickets en cours, vérifié en base après le test
+    private int compterDoublesAttributionsEnBase() throws SQLException {
+        String sql = "SELECT COUNT(*) FROM (SELECT place_id FROM Ticket WHERE sortie IS NULL " +
+                     "GROUP BY place_id HAVING COUNT(*) > 1) d";
+        try (Connection conn = DatabaseConnection.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    private static void attendreJusqua(long nanos) throws InterruptedException {
+        long reste = nanos - System.nanoTime();
+        if (reste > 0) {
+            TimeUnit.NANOSECONDS.sleep(reste);
+        }
+    }
+
+    void ecrireResultats(Path fichier) throws IOException, SQLException {
+        double dureeSec = options.dureeSec;
+        double[] pEntree = latencesEntree.percentilesMs(0.5, 0.99, 0.999);
+        double[] pSortie = latencesSortie.percentilesMs(0.5, 0.99, 0.999);
+        double[] pAttente = attentes.percentilesMs(0.5, 0.99, 0.999);
+        int doublesEnBase = compterDoublesAttributionsEnBase();
+
+        Map<String, Object> resultats = new LinkedHashMap<>();
+        resultats.put("date", LocalDateTime.now().toString());
+        resultats.put("bornes", options.bornes);
+        resultats.put("dureeSec", options.dureeSec);
+        resultats.put("debitPointeParMin", options.debitPointe);
+        resultats.put("population", options.population);
+        resultats.put("abonnes", nombreAbonnes);
+        resultats.put("places", options.places);
+        resultats.put("arrivees", arrivees.get());
+        resultats.put("arriveesSansVehiculeDisponible", arriveesSansVehicule.get());
+        resultats.put("entrees", entrees.get());
+        resultats.put("sorties", sorties.get());
+        resultats.put("sortiesAbonnes", sortiesAbonnes.get());
+        resultats.put("entreesParMin", entrees.get() * 60.0 / dureeSec);
+        resultats.put("sortiesParMin", sorties.get() * 60.0 / dureeSec);
+        resultats.put("entreesEchouees", entreesEchouees.get());
+        resultats.put("sortiesEchouees", sortiesEchouees.get());
+        resultats.put("doublesAttributionsObservees", doublesAttributions.get());
+        resultats.put("doublesAttributionsEnBase", doublesEnBase);
+        resultats.put("entreeMs", percentiles(pEntree));
+        resultats.put("sortieMs", percentiles(pSortie));
+        resultats.put("attenteBorneMs", percentiles(pAttente));
+
+        List<Object> parIntervalle = new ArrayList<>();
+        for (Map.Entry<Integer, Intervalle> e : new TreeMap<>(intervalles).entrySet()) {
+            Intervalle i = e.getValue();
+            double facteur = 60.0 / options.intervalleSec;
+            Map<String, Object> ligne = new LinkedHashMap<>();
+            ligne.put("debutSec", e.getKey() * options.intervalleSec);
+            ligne.put("heureSimulee", Math.round(heureSimulee(debutNanos
+                + TimeUnit.SECONDS.toNanos((long) e.getKey() * options.intervalleSec)) * 100) / 100.0);
+            ligne.put("entreesParMin", i.entrees.get() * facteur);
+            ligne.put("sortiesParMin", i.sorties.get() * facteur);
+            ligne.put("echecs", i.echecs.get());
+            ligne.put("p99Ms", i.latences.percentilesMs(0.99)[0]);
+            parIntervalle.add(ligne);
+        }
+        resultats.put("intervalles", parIntervalle);
+
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(fichier, StandardCharsets.UTF_8))) {
+            out.println(json(resultats, ""));
+        }
+
+        System.out.println(String.format(Locale.ROOT,
+            "Entrées %.1f/min (p50 %.1f ms, p99 %.1f ms, p99.9 %.1f ms), sorties %.1f/min (p99 %.1f ms), " +
+            "échecs %d/%d, doubles attributions %d/%d -> %s",
+            entrees.get() * 60.0 / dureeSec, pEntree[0], pEntree[1], pEntree[2],
+            sorties.get() * 60.0 / dureeSec, pSortie[1],
+            entreesEchouees.get(), sortiesEchouees.get(), doublesAttributions.get(), doublesEnBase,
+            fichier.toAbsolutePath()));
+    }
+
+    private static Map<String, Object> percentiles(double[] p) {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("p50", p[0]);
+        m.put("p99", p[1]);
+        m.put("p999", p[2]);
+        return m;
+    }
+
+    // Sérialisation JSON minimale (nombres, chaînes, listes, maps)
+    private static String json(Object valeur, String indentation) {
+        if (valeur instanceof Map) {
+            StringBuilder sb = new StringBuilder("{\n");
+            String suivante = indentation + "  ";
+            boolean premier = true;
+            for (Map.Entry<?, ?> e : ((Map<?, ?>) valeur).entrySet()) {
+                if (!premier) {
+                    sb.append(",\n");
+                }
+                premier = false;
+                sb.append(suivante).append('"').append(e.getKey()).append("\": ").append(json(e.getValue(), suivante));
+            }
+            return sb.append('\n').append(indentation).append('}').toString();
+        }
+        if (valeur instanceof List) {
+            StringBuilder sb = new StringBuilder("[\n");
+            String suivante = indentation + "  ";
+            boolean premier = true;
+            for (Object element : (List<?>) valeur) {
+                if (!premier) {
+                    sb.append(",\n");
+                }
+                premier = false;
+                sb.append(suivante).append(json(element, suivante));
+            }
+            return sb.append('\n').append(indentation).append(']').toString();
+        }
+        if (valeur instanceof Double) {
+            return String.format(Locale.ROOT, "%.3f", (Double) valeur);
+        }
+        if (valeur instanceof Number || valeur instanceof Boolean) {
+            return String.valueOf(valeur);
+        }
+        return '"' + String.valueOf(valeur).replace("\\", "\\\\").replace("\"", "\\\"") + '"';
+    }
+}
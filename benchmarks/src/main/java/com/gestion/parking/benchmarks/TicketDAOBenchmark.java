@@ -0,0 +1,46 @@
+package com.gestion.parking.benchmarks;
+
+import com.gestion.parking.dao.FiltreTickets;
+import com.gestion.parking.dao.TicketDAO;
+import com.gestion.parking.model.Ticket;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Listage des tickets: findAll (tout l'historique) face à la première page par clé (écran Tickets)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TicketDAOBenchmark {
+    private static final int TAILLE_PAGE = 50;
+
+    private final TicketDAO ticketDAO = new TicketDAO();
+    private final FiltreTickets sansFiltre = new FiltreTickets();
+
+    @Benchmark
+    public List<Ticket> findAll(VolumesBase volumes) throws SQLException {
+        return ticketDAO.findAll();
+    }
+
+    @Benchmark
+    public List<Ticket> premierePage(VolumesBase volumes) throws SQLException {
+        return ticketDAO.findPage(sansFiltre, null, TAILLE_PAGE);
+    }
+
+    @Benchmark
+    public boolean existsByVehicule(VolumesBase volumes) throws SQLException {
+        return ticketDAO.existsByVehicule(volumes.vehicules);
+    }
+}
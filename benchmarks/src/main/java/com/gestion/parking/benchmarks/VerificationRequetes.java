@@ -0,0 +1,116 @@
+package com.gestion.parking.benchmarks;
+
+import com.gestion.parking.dao.ActiviteDAO;
+import com.gestion.parking.dao.BaseEmbarquee;
+import com.gestion.parking.dao.DatabaseConnection;
+import com.gestion.parking.dao.MetriquesDAO;
+import com.gestion.parking.model.Abonne;
+import com.gestion.parking.service.StatistiqueService;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+// Exécution de chaque requête de StatistiqueService et d'ActiviteDAO sur la base embarquée (H2 en mode MySQL).
+// Les services journalisent les erreurs SQL et renvoient null ou 0: les erreurs sont donc relevées dans
+// MetriquesDAO en plus des résultats null. Code de sortie 1 si une requête échoue.
+//   java -cp target/benchmarks.jar com.gestion.parking.benchmarks.VerificationRequetes
+public final class VerificationRequetes {
+
+    private static final int LIMITE_ACTIVITES = 200;
+
+    private final List<String> echecs = new ArrayList<>();
+    private int verifiees = 0;
+
+    public static void main(String[] args) throws Exception {
+        // Avant tout accès à DatabaseConnection: la configuration de la base est lue une fois par JVM
+        System.setProperty("parking.db.profil", "embarque");
+        System.setProperty("parking.metriques.actives", "true");
+        System.setProperty("parking.metriques.resumeSec", "0");
+        System.setProperty("parking.metriques.lentes.fichier", "");
+
+        int code;
+        try {
+            BaseEmbarquee.preparer();
+            VerificationRequetes verification = new VerificationRequetes();
+            verification.executer();
+            code = verification.conclure();
+        } finally {
+            DatabaseConnection.shutdown();
+        }
+        System.exit(code);
+    }
+
+    void executer() {
+        StatistiqueService stats = new StatistiqueService();
+        ActiviteDAO activites = new ActiviteDAO();
+        LocalDate fin = LocalDate.now();
+        LocalDate debut = fin.minusDays(90);
+
+        verifier("obtenirIndicateurs", stats::obtenirIndicateurs);
+        verifier("listerActivitesDuJour", () -> stats.listerActivitesDuJour(fin, LIMITE_ACTIVITES));
+        verifier("listerActivitesDepuis", () -> stats.listerActivitesDepuis(fin.atStartOfDay(), LIMITE_ACTIVITES));
+        verifier("ActiviteDAO.findDuJour", () -> activites.findDuJour(fin, Abonne.getPrixMensuel(), LIMITE_ACTIVITES));
+        verifier("ActiviteDAO.findDepuis",
+            () -> activites.findDepuis(debut.atStartOfDay(), Abonne.getPrixMensuel(), LIMITE_ACTIVITES));
+
+        verifier("obtenirChiffreAffaires", () -> stats.obtenirChiffreAffaires(debut, fin));
+        verifier("obtenirChiffreAffairesDuJour", stats::obtenirChiffreAffairesDuJour);
+        verifier("obtenirChiffreAffairesTickets", () -> stats.obtenirChiffreAffairesTickets(debut, fin));
+        verifier("obtenirChiffreAffairesAbonnements", () -> stats.obtenirChiffreAffairesAbonnements(debut, fin));
+        verifier("obtenirChiffreAffairesDuMois", stats::obtenirChiffreAffairesDuMois);
+        verifier("obtenirNombreEntrees", () -> stats.obtenirNombreEntrees(debut, fin));
+        verifier("obtenirTauxOccupation", stats::obtenirTauxOccupation);
+        verifier("obtenirNombrePlacesDisponibles", stats::obtenirNombrePlacesDisponibles);
+        verifier("obtenirNombreTotalPlaces", stats::obtenirNombreTotalPlaces);
+        verifier("obtenirNombrePlacesOccupees", stats::obtenirNombrePlacesOccupees);
+        verifier("obtenirNombreTicketsEnCours", stats::obtenirNombreTicketsEnCours);
+        verifier("obtenirNombreVehiculesEnregistres", stats::obtenirNombreVehiculesEnregistres);
+        verifier("obtenirNombreAbonnesValides", stats::obtenirNombreAbonnesValides);
+        verifier("obtenirNombreTotalAbonnes", stats::obtenirNombreTotalAbonnes);
+        verifier("obtenirStatistiquesJournalieres", () -> stats.obtenirStatistiquesJournalieres(30));
+
+        for (StatistiqueService.Granularite g : StatistiqueService.Granularite.values()) {
+            verifier("obtenirSerieEntrees/" + g, () -> stats.obtenirSerieEntrees(debut, fin, g));
+            verifier("obtenirSerieSorties/" + g, () -> stats.obtenirSerieSorties(debut, fin, g));
+            verifier("obtenirSerieChiffreAffaires/" + g, () -> stats.obtenirSerieChiffreAffaires(debut, fin, g));
+            verifier("obtenirSerieDureeMoyenne/" + g, () -> stats.obtenirSerieDureeMoyenne(debut, fin, g));
+        }
+
+        verifier("obtenirRevenuMoyenParVehicule", () -> stats.obtenirRevenuMoyenParVehicule(debut, fin));
+        verifier("obtenirHeuresDePointe", () -> stats.obtenirHeuresDePointe(debut, fin));
+        verifier("obtenirTempsMoyenStationnement", () -> stats.obtenirTempsMoyenStationnement(debut, fin));
+        verifier("genererRapportComplet", () -> stats.genererRapportComplet(debut, fin));
+        verifier("genererRapportJournalier", stats::genererRapportJournalier);
+        verifier("genererRapportMensuel", stats::genererRapportMensuel);
+    }
+
+    private void verifier(String nom, Callable<?> requete) {
+        verifiees++;
+        try {
+            if (requete.call() == null) {
+                echecs.add(nom + ": résultat null");
+            }
+        } catch (Exception e) {
+            echecs.add(nom + ": " + e.getMessage());
+        }
+    }
+
+    // Erreurs SQL masquées par les services (relevées par l'instrumentation JDBC)
+    int conclure() {
+        for (MetriquesDAO.Instantane i : MetriquesDAO.getInstance().instantane()) {
+            if (i.getErreurs() > 0) {
+                echecs.add(i.getMethode() + ": " + i.getErreurs() + " erreur(s) SQL");
+            }
+        }
+        if (echecs.isEmpty()) {
+            System.out.println(verifiees + " requêtes vérifiées sur la base embarquée: aucune erreur");
+            return 0;
+        }
+        System.err.println(echecs.size() + " échec(s) sur " + verifiees + " requêtes vérifiées:");
+        for (String echec : echecs) {
+            System.err.println("  " + echec);
+        }
+        return 1;
+    }
+}
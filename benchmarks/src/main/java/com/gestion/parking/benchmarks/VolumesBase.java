@@ -0,0 +1,48 @@
+package com.gestion.parking.benchmarks;
+
+import com.gestion.parking.dao.BaseEmbarquee;
+import com.gestion.parking.dao.DatabaseConnection;
+import java.sql.SQLException;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+// Volumes de la base embarquée (profil "embarque" de l'application), surchargeables en ligne de commande:
+// java -jar target/benchmarks.jar -p tickets=10000,1000000 -p places=200
+// Coût de l'instrumentation JDBC (MetriquesDAO): -p metriques=true,false
+@State(Scope.Benchmark)
+public class VolumesBase {
+    @Param("200")
+    public int places;
+
+    @Param("5000")
+    public int vehicules;
+
+    @Param("100000")
+    public int tickets;
+
+    @Param("100000")
+    public int paiements;
+
+    @Param("500")
+    public int abonnes;
+
+    @Param("true")
+    public boolean metriques;
+
+    @Setup(Level.Trial)
+    public void remplir() throws SQLException {
+        // Avant tout accès à DatabaseConnection: la configuration de la base est lue une fois par JVM
+        System.setProperty("parking.db.profil", "embarque");
+        System.setProperty("parking.metriques.actives", String.valueOf(metriques));
+        BaseEmbarquee.preparer(places, vehicules, tickets, paiements, abonnes);
+    }
+
+    @TearDown(Level.Trial)
+    public void fermer() {
+        DatabaseConnection.shutdown();
+    }
+}
@@ -0,0 +1,51 @@
+-- Schéma de base de l'application.
+-- CREATE TABLE IF NOT EXISTS: une base existante adopte cette version sans modification,
+-- les index manquants y sont ajoutés ensuite par V2__index_bases_existantes.sql.
+
+CREATE TABLE IF NOT EXISTS Vehicule (
+    id INT AUTO_INCREMENT PRIMARY KEY,
+    immatriculation VARCHAR(20) NOT NULL,
+    proprietaire VARCHAR(100),
+    CONSTRAINT uk_vehicule_immatriculation UNIQUE (immatriculation)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+CREATE TABLE IF NOT EXISTS Place (
+    id INT AUTO_INCREMENT PRIMARY KEY,
+    numero VARCHAR(20) NOT NULL,
+    statut VARCHAR(10) NOT NULL DEFAULT 'LIBRE',
+    CONSTRAINT uk_place_numero UNIQUE (numero),
+    INDEX idx_place_statut (statut)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+CREATE TABLE IF NOT EXISTS Ticket (
+    id INT AUTO_INCREMENT PRIMARY KEY,
+    place_id INT,
+    vehicule_id INT,
+    entree DATETIME NOT NULL,
+    sortie DATETIME NULL,
+    montant DOUBLE,
+    CONSTRAINT fk_ticket_place FOREIGN KEY (place_id) REFERENCES Place (id),
+    CONSTRAINT fk_ticket_vehicule FOREIGN KEY (vehicule_id) REFERENCES Vehicule (id),
+    INDEX idx_ticket_entree (entree),
+    INDEX idx_ticket_sortie (sortie),
+    INDEX idx_ticket_vehicule_sortie (vehicule_id, sortie)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+CREATE TABLE IF NOT EXISTS Abonne (
+    id INT AUTO_INCREMENT PRIMARY KEY,
+    vehicule_id INT NOT NULL,
+    dateDebut DATE NOT NULL,
+    dateFin DATE NOT NULL,
+    CONSTRAINT fk_abonne_vehicule FOREIGN KEY (vehicule_id) REFERENCES Vehicule (id),
+    INDEX idx_abonne_date_debut (dateDebut)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+CREATE TABLE IF NOT EXISTS Paiement (
+    id INT AUTO_INCREMENT PRIMARY KEY,
+    ticket_id INT NULL,
+    montant DOUBLE NOT NULL,
+    `date` DATETIME NOT NULL,
+    CONSTRAINT fk_paiement_ticket FOREIGN KEY (ticket_id) REFERENCES Ticket (id),
+    INDEX idx_paiement_date (`date`),
+    INDEX idx_paiement_ticket (ticket_id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
@@ -0,0 +1,63 @@
+-- mysql seulement
+-- Index du schéma initial sur une base antérieure aux migrations, dont V1 (CREATE TABLE IF NOT EXISTS)
+-- a gardé les tables telles quelles. Un index n'est créé que si aucun index existant ne commence par
+-- les mêmes colonnes (les clés étrangères ont souvent déjà le leur): sans effet sur une base créée par V1.
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.STATISTICS
+               WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'Place'
+                 AND SEQ_IN_INDEX = 1 AND COLUMN_NAME = 'statut') = 0,
+              'CREATE INDEX idx_place_statut ON Place (statut)', 'DO 0');
+PREPARE ddl FROM @ddl;
+EXECUTE ddl;
+DEALLOCATE PREPARE ddl;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.STATISTICS
+               WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'Ticket'
+                 AND SEQ_IN_INDEX = 1 AND COLUMN_NAME = 'entree') = 0,
+              'CREATE INDEX idx_ticket_entree ON Ticket (entree)', 'DO 0');
+PREPARE ddl FROM @ddl;
+EXECUTE ddl;
+DEALLOCATE PREPARE ddl;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.STATISTICS
+               WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'Ticket'
+                 AND SEQ_IN_INDEX = 1 AND COLUMN_NAME = 'sortie') = 0,
+              'CREATE INDEX idx_ticket_sortie ON Ticket (sortie)', 'DO 0');
+PREPARE ddl FROM @ddl;
+EXECUTE ddl;
+DEALLOCATE PREPARE ddl;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.STATISTICS s1
+               JOIN information_schema.STATISTICS s2
+                 ON s2.TABLE_SCHEMA = s1.TABLE_SCHEMA AND s2.TABLE_NAME = s1.TABLE_NAME
+                AND s2.INDEX_NAME = s1.INDEX_NAME AND s2.SEQ_IN_INDEX = 2 AND s2.COLUMN_NAME = 'sortie'
+               WHERE s1.TABLE_SCHEMA = DATABASE() AND s1.TABLE_NAME = 'Ticket'
+                 AND s1.SEQ_IN_INDEX = 1 AND s1.COLUMN_NAME = 'vehicule_id') = 0,
+              'CREATE INDEX idx_ticket_vehicule_sortie ON Ticket (vehicule_id, sortie)', 'DO 0');
+PREPARE ddl FROM @ddl;
+EXECUTE ddl;
+DEALLOCATE PREPARE ddl;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.STATISTICS
+               WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'Abonne'
+                 AND SEQ_IN_INDEX = 1 AND COLUMN_NAME = 'dateDebut') = 0,
+              'CREATE INDEX idx_abonne_date_debut ON Abonne (dateDebut)', 'DO 0');
+PREPARE ddl FROM @ddl;
+EXECUTE ddl;
+DEALLOCATE PREPARE ddl;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.STATISTICS
+               WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'Paiement'
+                 AND SEQ_IN_INDEX = 1 AND COLUMN_NAME = 'date') = 0,
+              'CREATE INDEX idx_paiement_date ON Paiement (`date`)', 'DO 0');
+PREPARE ddl FROM @ddl;
+EXECUTE ddl;
+DEALLOCATE PREPARE ddl;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.STATISTICS
+               WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'Paiement'
+                 AND SEQ_IN_INDEX = 1 AND COLUMN_NAME = 'ticket_id') = 0,
+              'CREATE INDEX idx_paiement_ticket ON Paiement (ticket_id)', 'DO 0');
+PREPARE ddl FROM @ddl;
+EXECUTE ddl;
+DEALLOCATE PREPARE ddl;